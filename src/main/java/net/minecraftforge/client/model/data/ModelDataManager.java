@@ -6,7 +6,14 @@
 package net.minecraftforge.client.model.data;
 
 import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
@@ -19,69 +26,191 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.AbstractMap;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * A manager for the lifecycle of all the {@link ModelData} instances in a {@link Level}.
  * <p>
+ * Model data is stored per chunk section, keyed by {@linkplain BlockPos#asLong() packed position}. Refresh requests are
+ * queued per section and applied all at once when that section is next queried on the level's thread, which normally
+ * happens right before the section is compiled. Other threads can read at any time without locking, and see the data
+ * as of the last refresh.
+ * <p>
  * Users should not be instantiating or using this themselves unless they know what they're doing.
  */
 @ApiStatus.Internal
 @EventBusSubscriber(modid = "forge", bus = Bus.FORGE, value = Dist.CLIENT)
 public class ModelDataManager
 {
+    /**
+     * How many emptied sections may be left in the section table before it is copied just to drop them.
+     */
+    private static final int REMOVAL_BATCH = 64;
+
     private final Level level;
-    private final Map<ChunkPos, Set<BlockPos>> needModelDataRefresh = new ConcurrentHashMap<>();
-    private final Map<ChunkPos, Map<BlockPos, ModelData>> modelDataCache = new ConcurrentHashMap<>();
+    private final Thread owner;
+    // Guarded by itself
+    private final Long2ObjectMap<LongSet> needModelDataRefresh = new Long2ObjectOpenHashMap<>();
+    // Copied on write, so readers never need to lock. Only replaced on the owner thread, and the data of each section is copied on write as well.
+    private volatile Long2ObjectMap<Section> modelDataCache = new Long2ObjectOpenHashMap<>();
+    // Sections of unloaded chunks which were emptied in place, and are dropped from the table the next time it is copied. Only used on the owner thread.
+    private final LongSet pendingRemoval = new LongOpenHashSet();
 
     public ModelDataManager(Level level)
     {
         this.level = level;
+        this.owner = Thread.currentThread();
     }
 
     public void requestRefresh(@NotNull BlockEntity blockEntity)
     {
         Preconditions.checkNotNull(blockEntity, "Block entity must not be null");
-        needModelDataRefresh.computeIfAbsent(new ChunkPos(blockEntity.getBlockPos()), $ -> Collections.synchronizedSet(new HashSet<>()))
-                            .add(blockEntity.getBlockPos());
+        BlockPos pos = blockEntity.getBlockPos();
+        synchronized (needModelDataRefresh)
+        {
+            LongSet positions = needModelDataRefresh.get(SectionPos.asLong(pos));
+            if (positions == null)
+                needModelDataRefresh.put(SectionPos.asLong(pos), positions = new LongOpenHashSet());
+            positions.add(pos.asLong());
+        }
     }
 
-    private void refreshAt(ChunkPos chunk)
+    private void refreshAt(long section)
     {
-        Set<BlockPos> needUpdate = needModelDataRefresh.remove(chunk);
+        if (Thread.currentThread() != owner)
+            return;
+
+        LongSet needUpdate;
+        synchronized (needModelDataRefresh)
+        {
+            if (needModelDataRefresh.isEmpty())
+                return;
+            needUpdate = needModelDataRefresh.remove(section);
+        }
+        if (needUpdate == null)
+            return;
 
-        if (needUpdate != null)
+        Section existing = modelDataCache.get(section);
+        Long2ObjectOpenHashMap<ModelData> data = existing == null ? new Long2ObjectOpenHashMap<>() : new Long2ObjectOpenHashMap<>(existing.data);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (LongIterator it = needUpdate.iterator(); it.hasNext(); )
         {
-            Map<BlockPos, ModelData> data = modelDataCache.computeIfAbsent(chunk, $ -> new ConcurrentHashMap<>());
-            for (BlockPos pos : needUpdate)
+            long packed = it.nextLong();
+            BlockEntity toUpdate = level.getBlockEntity(pos.set(packed));
+            if (toUpdate != null && !toUpdate.isRemoved())
+            {
+                data.put(packed, toUpdate.getModelData());
+            }
+            else
             {
-                BlockEntity toUpdate = level.getBlockEntity(pos);
-                if (toUpdate != null && !toUpdate.isRemoved())
-                {
-                    data.put(pos, toUpdate.getModelData());
-                }
-                else
-                {
-                    data.remove(pos);
-                }
+                data.remove(packed);
             }
         }
+
+        if (existing != null)
+        {
+            existing.data = data;
+            pendingRemoval.remove(section);
+        }
+        else if (!data.isEmpty())
+        {
+            Long2ObjectOpenHashMap<Section> sections = copySections();
+            sections.put(section, new Section(data));
+            modelDataCache = sections;
+        }
+    }
+
+    /**
+     * Copies the section table, leaving out the sections of unloaded chunks which are still empty.
+     */
+    private Long2ObjectOpenHashMap<Section> copySections()
+    {
+        Long2ObjectOpenHashMap<Section> sections = new Long2ObjectOpenHashMap<>(modelDataCache);
+        for (LongIterator it = pendingRemoval.iterator(); it.hasNext(); )
+            sections.remove(it.nextLong());
+        pendingRemoval.clear();
+        return sections;
     }
 
     public @Nullable ModelData getAt(BlockPos pos)
     {
-        return getAt(new ChunkPos(pos)).get(pos);
+        Preconditions.checkArgument(level.isClientSide, "Cannot request model data for server level");
+        long section = SectionPos.asLong(pos);
+        refreshAt(section);
+        Section data = modelDataCache.get(section);
+        return data == null ? null : data.data.get(pos.asLong());
+    }
+
+    /**
+     * Returns the model data of every block entity in a section, keyed by {@linkplain BlockPos#asLong() packed position}.
+     * The returned map is a snapshot, and does not change when the model data is refreshed later.
+     */
+    public Long2ObjectMap<ModelData> getAt(SectionPos pos)
+    {
+        Preconditions.checkArgument(level.isClientSide, "Cannot request model data for server level");
+        long section = pos.asLong();
+        refreshAt(section);
+        Section data = modelDataCache.get(section);
+        return data == null ? Long2ObjectMaps.emptyMap() : Long2ObjectMaps.unmodifiable(data.data);
     }
 
+    /**
+     * @deprecated Use {@link #getAt(SectionPos)}, this has to copy the data of every section in the chunk
+     */
+    @Deprecated(forRemoval = true, since = "1.20.1")
     public Map<BlockPos, ModelData> getAt(ChunkPos pos)
     {
         Preconditions.checkArgument(level.isClientSide, "Cannot request model data for server level");
-        refreshAt(pos);
-        return modelDataCache.getOrDefault(pos, Collections.emptyMap());
+        Map<BlockPos, ModelData> result = new HashMap<>();
+        for (int y = level.getMinSection(); y < level.getMaxSection(); y++)
+            getAt(SectionPos.of(pos, y)).forEach((packed, data) -> result.put(BlockPos.of(packed), data));
+        return result;
+    }
+
+    /**
+     * Returns a read-only view of section model data keyed by {@link BlockPos}, for code written against the old
+     * per-chunk maps. Lookups don't copy the data, iterating does.
+     *
+     * @deprecated Look up by {@linkplain BlockPos#asLong() packed position} in the section's map instead
+     */
+    @Deprecated(forRemoval = true, since = "1.20.1")
+    public static Map<BlockPos, ModelData> asPositionMap(Long2ObjectMap<ModelData> sectionData)
+    {
+        return sectionData.isEmpty() ? Collections.emptyMap() : new PositionView(sectionData);
+    }
+
+    private void unload(ChunkPos chunk)
+    {
+        synchronized (needModelDataRefresh)
+        {
+            if (!needModelDataRefresh.isEmpty())
+            {
+                for (int y = level.getMinSection(); y < level.getMaxSection(); y++)
+                    needModelDataRefresh.remove(SectionPos.asLong(chunk.x, y, chunk.z));
+            }
+        }
+
+        // Empty the sections in place, so that unloading chunks one after the other doesn't copy the table every time.
+        Long2ObjectMap<Section> current = modelDataCache;
+        if (current.isEmpty())
+            return;
+        for (int y = level.getMinSection(); y < level.getMaxSection(); y++)
+        {
+            long section = SectionPos.asLong(chunk.x, y, chunk.z);
+            Section existing = current.get(section);
+            if (existing != null)
+            {
+                existing.data = Long2ObjectMaps.emptyMap();
+                pendingRemoval.add(section);
+            }
+        }
+        if (pendingRemoval.size() >= REMOVAL_BATCH)
+            modelDataCache = copySections();
     }
 
     @SubscribeEvent
@@ -95,8 +224,52 @@ public class ModelDataManager
         if (modelDataManager == null)
             return;
 
-        ChunkPos chunk = event.getChunk().getPos();
-        modelDataManager.needModelDataRefresh.remove(chunk);
-        modelDataManager.modelDataCache.remove(chunk);
+        modelDataManager.unload(event.getChunk().getPos());
+    }
+
+    private static class Section
+    {
+        private volatile Long2ObjectMap<ModelData> data;
+
+        private Section(Long2ObjectMap<ModelData> data)
+        {
+            this.data = data;
+        }
+    }
+
+    private static class PositionView extends AbstractMap<BlockPos, ModelData>
+    {
+        private final Long2ObjectMap<ModelData> data;
+
+        private PositionView(Long2ObjectMap<ModelData> data)
+        {
+            this.data = data;
+        }
+
+        @Override
+        public ModelData get(Object key)
+        {
+            return key instanceof BlockPos pos ? data.get(pos.asLong()) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return key instanceof BlockPos pos && data.containsKey(pos.asLong());
+        }
+
+        @Override
+        public int size()
+        {
+            return data.size();
+        }
+
+        @Override
+        public Set<Entry<BlockPos, ModelData>> entrySet()
+        {
+            return data.long2ObjectEntrySet().stream()
+                    .map(entry -> Map.entry(BlockPos.of(entry.getLongKey()), entry.getValue()))
+                    .collect(Collectors.toUnmodifiableSet());
+        }
     }
 }
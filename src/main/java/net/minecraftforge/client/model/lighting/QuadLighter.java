@@ -14,7 +14,6 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.BlockAndTintGetter;
 import net.minecraft.world.level.LightLayer;
 import net.minecraft.world.level.block.state.BlockState;
-import org.joml.Vector3f;
 
 import java.util.Objects;
 
@@ -45,6 +44,7 @@ public abstract class QuadLighter
     private final float[] brightness = new float[4];
     private final int[] lightmap = new int[4];
     private final float[][] positions = new float[4][3];
+    private final float[][] adjustedPositions = new float[4][3];
     private final byte[][] normals = new byte[4][3];
     private final int[] packedLightmaps = new int[4];
 
@@ -61,7 +61,8 @@ public abstract class QuadLighter
 
     public final void setup(BlockAndTintGetter level, BlockPos pos, BlockState state)
     {
-        var hash = Objects.hash(level, pos, state);
+        // Same as Objects.hash(level, pos, state), without allocating the varargs array
+        int hash = 31 * (31 * (31 + Objects.hashCode(level)) + Objects.hashCode(pos)) + Objects.hashCode(state);
         if (this.level != null && this.currentHash == hash)
         {
             return; // If we are drawing a block at the same position as before, don't re-compute anything
@@ -95,35 +96,25 @@ public abstract class QuadLighter
             packedLightmaps[i] = vertices[offset + UV2];
         }
         if (normals[0][0] == 0 && normals[0][1] == 0 && normals[0][2] == 0)
+            computeFaceNormal();
+
+        // Kept as a simple loop over all components so that it can be vectorized
+        for (int i = 0; i < 4; i++)
         {
-            Vector3f a = new Vector3f(positions[0]);
-            Vector3f ab = new Vector3f(positions[1]);
-            Vector3f ac = new Vector3f(positions[2]);
-            ac.sub(a);
-            ab.sub(a);
-            ab.cross(ac);
-            ab.normalize();
-            for (int v = 0; v < 4; v++)
-            {
-                normals[v][0] = (byte) (ab.x() * 127);
-                normals[v][1] = (byte) (ab.y() * 127);
-                normals[v][2] = (byte) (ab.z() * 127);
-            }
+            for (int c = 0; c < 3; c++)
+                adjustedPositions[i][c] = positions[i][c] - 0.5f + ((normals[i][c] / 127f) * 0.5f);
         }
 
+        float shade = 0;
         for (int i = 0; i < 4; i++)
         {
-            var position = positions[i];
             var normal = normals[i];
+            var adjustedPosition = adjustedPositions[i];
             int packedLightmap = packedLightmaps[i];
 
-            var adjustedPosition = new float[] {
-                    position[0] - 0.5f + ((normal[0] / 127f) * 0.5f),
-                    position[1] - 0.5f + ((normal[1] / 127f) * 0.5f),
-                    position[2] - 0.5f + ((normal[2] / 127f) * 0.5f)
-            };
-
-            var shade = level.getShade(normals[i][0] / 127f, normals[i][1] / 127f, normals[i][2] / 127f, quad.isShade());
+            // The vertices of a quad almost always share their normal, so only compute the shade again when it changes
+            if (i == 0 || normal[0] != normals[i - 1][0] || normal[1] != normals[i - 1][1] || normal[2] != normals[i - 1][2])
+                shade = level.getShade(normal[0] / 127f, normal[1] / 127f, normal[2] / 127f, quad.isShade());
             brightness[i] = calculateBrightness(adjustedPosition) * shade;
             int newLightmap = calculateLightmap(adjustedPosition, normal);
             lightmap[i] = Math.max(packedLightmap & 0xFFFF, newLightmap & 0xFFFF) |
@@ -134,6 +125,26 @@ public abstract class QuadLighter
         consumer.putBulkData(pose, quad, brightness, color[0], color[1], color[2], lightmap, overlay, true);
     }
 
+    /**
+     * Computes the normal of the face from the positions of its first three vertices, for quads which don't specify one.
+     */
+    private void computeFaceNormal()
+    {
+        float[] a = positions[0], b = positions[1], c = positions[2];
+        float abX = b[0] - a[0], abY = b[1] - a[1], abZ = b[2] - a[2];
+        float acX = c[0] - a[0], acY = c[1] - a[1], acZ = c[2] - a[2];
+        float x = abY * acZ - abZ * acY;
+        float y = abZ * acX - abX * acZ;
+        float z = abX * acY - abY * acX;
+        float scale = 127 / (float) Math.sqrt(x * x + y * y + z * z);
+        for (int v = 0; v < 4; v++)
+        {
+            normals[v][0] = (byte) (x * scale);
+            normals[v][1] = (byte) (y * scale);
+            normals[v][2] = (byte) (z * scale);
+        }
+    }
+
     private float[] getColorFast(int tintIndex)
     {
         if (tintIndex != cachedTintIndex)
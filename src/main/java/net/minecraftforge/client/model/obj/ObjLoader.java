@@ -19,6 +19,7 @@ import net.minecraft.util.GsonHelper;
 import net.minecraftforge.client.model.geometry.IGeometryLoader;
 
 import java.io.FileNotFoundException;
+import java.io.InputStream;
 import java.util.Map;
 
 /**
@@ -65,9 +66,9 @@ public class ObjLoader implements IGeometryLoader<ObjModel>, ResourceManagerRelo
     {
         return modelCache.computeIfAbsent(settings, (data) -> {
             Resource resource = manager.getResource(settings.modelLocation()).orElseThrow();
-            try (ObjTokenizer tokenizer = new ObjTokenizer(resource.open()))
+            try (InputStream stream = resource.open())
             {
-                return ObjModel.parse(tokenizer, settings);
+                return ObjModelCache.load(stream.readAllBytes(), settings);
             } catch (FileNotFoundException e)
             {
                 throw new RuntimeException("Could not find OBJ model", e);
@@ -34,7 +34,9 @@ import org.jetbrains.annotations.Nullable;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -108,7 +110,9 @@ public class ObjModel extends SimpleUnbakedGeometry<ObjModel>
             modelPath = "";
 
         ObjMaterialLibrary mtllib = ObjMaterialLibrary.EMPTY;
+        ResourceLocation mtllibLocation = null;
         ObjMaterialLibrary.Material currentMat = null;
+        ResourceLocation currentMatLibrary = null;
         String currentSmoothingGroup = null;
         ModelGroup currentGroup = null;
         ModelObject currentObject = null;
@@ -120,9 +124,10 @@ public class ObjModel extends SimpleUnbakedGeometry<ObjModel>
         {
             String lib = materialLibraryOverrideLocation;
             if (lib.contains(":"))
-                mtllib = ObjLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(lib));
+                mtllibLocation = new ResourceLocation(lib);
             else
-                mtllib = ObjLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(modelDomain, modelPath + lib));
+                mtllibLocation = new ResourceLocation(modelDomain, modelPath + lib);
+            mtllib = ObjLoader.INSTANCE.loadMaterialLibrary(mtllibLocation);
         }
 
         String[] line;
@@ -137,9 +142,10 @@ public class ObjModel extends SimpleUnbakedGeometry<ObjModel>
 
                     String lib = line[1];
                     if (lib.contains(":"))
-                        mtllib = ObjLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(lib));
+                        mtllibLocation = new ResourceLocation(lib);
                     else
-                        mtllib = ObjLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(modelDomain, modelPath + lib));
+                        mtllibLocation = new ResourceLocation(modelDomain, modelPath + lib);
+                    mtllib = ObjLoader.INSTANCE.loadMaterialLibrary(mtllibLocation);
                     break;
                 }
 
@@ -150,9 +156,11 @@ public class ObjModel extends SimpleUnbakedGeometry<ObjModel>
                     if (!Objects.equals(newMat, currentMat))
                     {
                         currentMat = newMat;
+                        currentMatLibrary = mtllibLocation;
                         if (currentMesh != null && currentMesh.mat == null && currentMesh.faces.size() == 0)
                         {
                             currentMesh.mat = currentMat;
+                            currentMesh.matLibrary = currentMatLibrary;
                         }
                         else
                         {
@@ -180,7 +188,7 @@ public class ObjModel extends SimpleUnbakedGeometry<ObjModel>
                 {
                     if (currentMesh == null)
                     {
-                        currentMesh = model.new ModelMesh(currentMat, currentSmoothingGroup);
+                        currentMesh = model.new ModelMesh(currentMat, currentMatLibrary, currentSmoothingGroup);
                         if (currentObject != null)
                         {
                             currentObject.meshes.add(currentMesh);
@@ -199,9 +207,7 @@ public class ObjModel extends SimpleUnbakedGeometry<ObjModel>
                     int[][] vertices = new int[line.length - 1][];
                     for (int i = 0; i < vertices.length; i++)
                     {
-                        String vertexData = line[i + 1];
-                        String[] vertexParts = vertexData.split("/");
-                        int[] vertex = Arrays.stream(vertexParts).mapToInt(num -> Strings.isNullOrEmpty(num) ? 0 : Integer.parseInt(num)).toArray();
+                        int[] vertex = parseFaceVertex(line[i + 1]);
                         if (vertex[0] < 0) vertex[0] = model.positions.size() + vertex[0];
                         else vertex[0]--;
                         if (vertex.length > 1)
@@ -300,6 +306,36 @@ public class ObjModel extends SimpleUnbakedGeometry<ObjModel>
         );
     }
 
+    /**
+     * Parses the slash separated indices of a face vertex, the same way as splitting on '/' would but without the
+     * intermediate strings. Empty indices are 0, and trailing empty indices are dropped.
+     */
+    private static int[] parseFaceVertex(String vertexData)
+    {
+        int end = vertexData.length();
+        while (end > 0 && vertexData.charAt(end - 1) == '/')
+            end--;
+
+        int count = 1;
+        for (int i = 0; i < end; i++)
+        {
+            if (vertexData.charAt(i) == '/')
+                count++;
+        }
+
+        int[] vertex = new int[count];
+        int start = 0;
+        for (int part = 0; part < count; part++)
+        {
+            int slash = vertexData.indexOf('/', start);
+            if (slash < 0 || slash > end)
+                slash = end;
+            vertex[part] = slash == start ? 0 : Integer.parseInt(vertexData, start, slash, 10);
+            start = slash + 1;
+        }
+        return vertex;
+    }
+
     private static Vec2 parseVector2(String[] line)
     {
         return switch (line.length)
@@ -333,6 +369,139 @@ public class ObjModel extends SimpleUnbakedGeometry<ObjModel>
         };
     }
 
+    /**
+     * Writes the parsed geometry of this model in the format read by {@link #read(ByteBuffer, ModelSettings)}.
+     * Materials are stored by name and library, and looked up again when the model is read.
+     */
+    void write(DataOutputStream out) throws IOException
+    {
+        out.writeInt(positions.size());
+        for (Vector3f position : positions)
+            writeFloats(out, position.x(), position.y(), position.z());
+        out.writeInt(texCoords.size());
+        for (Vec2 texCoord : texCoords)
+            writeFloats(out, texCoord.x, texCoord.y);
+        out.writeInt(normals.size());
+        for (Vector3f normal : normals)
+            writeFloats(out, normal.x(), normal.y(), normal.z());
+        out.writeInt(colors.size());
+        for (Vector4f color : colors)
+            writeFloats(out, color.x(), color.y(), color.z(), color.w());
+
+        out.writeInt(parts.size());
+        for (Map.Entry<String, ModelGroup> entry : parts.entrySet())
+        {
+            ModelGroup group = entry.getValue();
+            ObjModelCache.writeString(out, entry.getKey());
+            ObjModelCache.writeString(out, group.name);
+            writeMeshes(out, group.meshes);
+            out.writeInt(group.parts.size());
+            for (Map.Entry<String, ModelObject> child : group.parts.entrySet())
+            {
+                ObjModelCache.writeString(out, child.getKey());
+                ObjModelCache.writeString(out, child.getValue().name);
+                writeMeshes(out, child.getValue().meshes);
+            }
+        }
+    }
+
+    private static void writeFloats(DataOutputStream out, float... values) throws IOException
+    {
+        for (float value : values)
+            out.writeFloat(value);
+    }
+
+    private static void writeMeshes(DataOutputStream out, List<ModelMesh> meshes) throws IOException
+    {
+        out.writeInt(meshes.size());
+        for (ModelMesh mesh : meshes)
+        {
+            ObjModelCache.writeString(out, mesh.mat == null ? null : mesh.mat.name);
+            ObjModelCache.writeString(out, mesh.matLibrary == null ? null : mesh.matLibrary.toString());
+            ObjModelCache.writeString(out, mesh.smoothingGroup);
+            out.writeInt(mesh.faces.size());
+            for (int[][] face : mesh.faces)
+            {
+                out.writeInt(face.length);
+                for (int[] vertex : face)
+                {
+                    out.writeInt(vertex.length);
+                    for (int index : vertex)
+                        out.writeInt(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a model written by {@link #write(DataOutputStream)}.
+     */
+    static ObjModel read(ByteBuffer in, ModelSettings settings)
+    {
+        var model = new ObjModel(settings);
+
+        int count = in.getInt();
+        for (int i = 0; i < count; i++)
+            model.positions.add(new Vector3f(in.getFloat(), in.getFloat(), in.getFloat()));
+        count = in.getInt();
+        for (int i = 0; i < count; i++)
+            model.texCoords.add(new Vec2(in.getFloat(), in.getFloat()));
+        count = in.getInt();
+        for (int i = 0; i < count; i++)
+            model.normals.add(new Vector3f(in.getFloat(), in.getFloat(), in.getFloat()));
+        count = in.getInt();
+        for (int i = 0; i < count; i++)
+            model.colors.add(new Vector4f(in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat()));
+
+        count = in.getInt();
+        for (int i = 0; i < count; i++)
+        {
+            String key = ObjModelCache.readString(in);
+            ModelGroup group = model.new ModelGroup(ObjModelCache.readString(in));
+            model.readMeshes(in, group.meshes);
+            model.parts.put(key, group);
+            int children = in.getInt();
+            for (int j = 0; j < children; j++)
+            {
+                String childKey = ObjModelCache.readString(in);
+                ModelObject object = model.new ModelObject(ObjModelCache.readString(in));
+                model.readMeshes(in, object.meshes);
+                group.parts.put(childKey, object);
+            }
+        }
+        return model;
+    }
+
+    private void readMeshes(ByteBuffer in, List<ModelMesh> meshes)
+    {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++)
+        {
+            String matName = ObjModelCache.readString(in);
+            String matLibrary = ObjModelCache.readString(in);
+            ObjMaterialLibrary.Material mat = null;
+            ResourceLocation library = matLibrary == null ? null : new ResourceLocation(matLibrary);
+            if (matName != null)
+                mat = (library == null ? ObjMaterialLibrary.EMPTY : ObjLoader.INSTANCE.loadMaterialLibrary(library)).getMaterial(matName);
+
+            ModelMesh mesh = new ModelMesh(mat, library, ObjModelCache.readString(in));
+            int faces = in.getInt();
+            for (int f = 0; f < faces; f++)
+            {
+                int[][] face = new int[in.getInt()][];
+                for (int v = 0; v < face.length; v++)
+                {
+                    int[] vertex = new int[in.getInt()];
+                    for (int c = 0; c < vertex.length; c++)
+                        vertex[c] = in.getInt();
+                    face[v] = vertex;
+                }
+                mesh.faces.add(face);
+            }
+            meshes.add(mesh);
+        }
+    }
+
     @Override
     protected void addQuads(IGeometryBakingContext owner, IModelBuilder<?> modelBuilder, ModelBaker baker, Function<Material, TextureAtlasSprite> spriteGetter, ModelState modelTransform, ResourceLocation modelLocation)
     {
@@ -609,13 +778,22 @@ public class ObjModel extends SimpleUnbakedGeometry<ObjModel>
     {
         @Nullable
         public ObjMaterialLibrary.Material mat;
+        // The library the material was loaded from, so it can be looked up again when read from the cache
+        @Nullable
+        public ResourceLocation matLibrary;
         @Nullable
         public String smoothingGroup;
         public final List<int[][]> faces = Lists.newArrayList();
 
         public ModelMesh(@Nullable ObjMaterialLibrary.Material currentMat, @Nullable String currentSmoothingGroup)
+        {
+            this(currentMat, null, currentSmoothingGroup);
+        }
+
+        public ModelMesh(@Nullable ObjMaterialLibrary.Material currentMat, @Nullable ResourceLocation currentMatLibrary, @Nullable String currentSmoothingGroup)
         {
             this.mat = currentMat;
+            this.matLibrary = currentMatLibrary;
             this.smoothingGroup = currentSmoothingGroup;
         }
 
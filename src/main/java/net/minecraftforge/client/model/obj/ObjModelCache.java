@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.client.model.obj;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.mojang.logging.LogUtils;
+import net.minecraft.Util;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A disk cache of parsed {@link ObjModel OBJ models}, so that unchanged models don't have to be parsed from text again.
+ * <p>
+ * Entries are keyed by a hash of the OBJ file's contents and the settings which affect parsing, and are memory-mapped
+ * when read. Material libraries are small, and are always parsed from text.
+ */
+final class ObjModelCache
+{
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int VERSION = 1;
+
+    private ObjModelCache()
+    {
+    }
+
+    static ObjModel load(byte[] data, ObjModel.ModelSettings settings) throws IOException
+    {
+        Path file = getFile(data, settings);
+        if (Files.exists(file))
+        {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+            {
+                ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (in.getInt() == VERSION)
+                    return ObjModel.read(in, settings);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                LOGGER.debug("Failed to read cached OBJ model {}, parsing it again", settings.modelLocation(), e);
+            }
+        }
+
+        ObjModel model;
+        try (ObjTokenizer tokenizer = new ObjTokenizer(new ByteArrayInputStream(data)))
+        {
+            model = ObjModel.parse(tokenizer, settings);
+        }
+        Util.ioPool().execute(() -> write(file, model));
+        return model;
+    }
+
+    private static void write(Path file, ObjModel model)
+    {
+        try
+        {
+            Files.createDirectories(file.getParent());
+            // Written to a temporary file first, so a crash never leaves a truncated model behind
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+            {
+                out.writeInt(VERSION);
+                model.write(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn("Failed to cache OBJ model {}", model.modelLocation, e);
+        }
+    }
+
+    private static Path getFile(byte[] data, ObjModel.ModelSettings settings)
+    {
+        // Material libraries are referenced relative to the model, so its location is part of the key
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putBytes(data);
+        hasher.putString(settings.modelLocation().toString(), StandardCharsets.UTF_8);
+        hasher.putString(String.valueOf(settings.mtlOverride()), StandardCharsets.UTF_8);
+        return FMLPaths.GAMEDIR.get().resolve(".cache").resolve("obj").resolve(hasher.hash() + ".bin");
+    }
+
+    static void writeString(DataOutputStream out, @Nullable String value) throws IOException
+    {
+        if (value == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    static String readString(ByteBuffer in)
+    {
+        int length = in.getInt();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -6,7 +6,6 @@
 package net.minecraftforge.client.model.obj;
 
 import com.google.common.base.Charsets;
-import joptsimple.internal.Strings;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
@@ -14,7 +13,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -25,6 +23,8 @@ import java.util.List;
 public class ObjTokenizer implements AutoCloseable
 {
     private final BufferedReader lineReader;
+    // Reused for every line
+    private final List<String> lineParts = new ArrayList<>();
 
     public ObjTokenizer(InputStream inputStream)
     {
@@ -41,7 +41,7 @@ public class ObjTokenizer implements AutoCloseable
             if (currentLine == null)
                 return null;
 
-            List<String> lineParts = new ArrayList<>();
+            lineParts.clear();
 
             if (currentLine.startsWith("#"))
                 currentLine = "";
@@ -53,9 +53,7 @@ public class ObjTokenizer implements AutoCloseable
                 do
                 {
                     hasContinuation = currentLine.endsWith("\\");
-                    String tmp = hasContinuation ? currentLine.substring(0, currentLine.length() - 1) : currentLine;
-
-                    Arrays.stream(tmp.split("[\t ]+")).filter(s -> !Strings.isNullOrEmpty(s)).forEach(lineParts::add);
+                    split(currentLine, hasContinuation ? currentLine.length() - 1 : currentLine.length());
 
                     if (hasContinuation)
                     {
@@ -77,6 +75,32 @@ public class ObjTokenizer implements AutoCloseable
         return new String[0];
     }
 
+    /**
+     * Adds the parts of the line up to the given end which are separated by spaces and tabs, skipping empty parts.
+     */
+    private void split(String line, int end)
+    {
+        int start = -1;
+        for (int i = 0; i < end; i++)
+        {
+            char c = line.charAt(i);
+            if (c == ' ' || c == '\t')
+            {
+                if (start >= 0)
+                {
+                    lineParts.add(line.substring(start, i));
+                    start = -1;
+                }
+            }
+            else if (start < 0)
+            {
+                start = i;
+            }
+        }
+        if (start >= 0)
+            lineParts.add(line.substring(start, end));
+    }
+
     @Override
     public void close() throws IOException
     {
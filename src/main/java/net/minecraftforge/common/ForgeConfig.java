@@ -14,6 +14,7 @@ import org.apache.logging.log4j.LogManager;
 
 import net.minecraftforge.common.ForgeConfigSpec.BooleanValue;
 import net.minecraftforge.common.ForgeConfigSpec.DoubleValue;
+import net.minecraftforge.common.ForgeConfigSpec.IntValue;
 import net.minecraftforge.common.ForgeConfigSpec.ConfigValue;
 
 
@@ -30,6 +31,11 @@ public class ForgeConfig {
 
         public final ConfigValue<String> permissionHandler;
 
+        public final BooleanValue tickAttribution;
+        public final IntValue tickAttributionSampleInterval;
+        public final IntValue tickMetricsExportInterval;
+        public final ConfigValue<String> tickMetricsFile;
+
         Server(ForgeConfigSpec.Builder builder) {
             builder.comment("Server configuration settings")
                    .push("server");
@@ -69,6 +75,28 @@ public class ForgeConfig {
                     .translation("forge.configgui.permissionHandler")
                     .define("permissionHandler", "forge:default_handler");
 
+            tickAttribution = builder
+                    .comment("Continuously sample entity, block entity and event listener tick times and attribute them to the mod that owns them.")
+                    .translation("forge.configgui.tickAttribution")
+                    .worldRestart()
+                    .define("tickAttribution", true);
+
+            tickAttributionSampleInterval = builder
+                    .comment("Only one in this many entity ticks, block entity ticks and event posts is timed for tick attribution. Rounded down to a power of two.")
+                    .translation("forge.configgui.tickAttributionSampleInterval")
+                    .worldRestart()
+                    .defineInRange("tickAttributionSampleInterval", 64, 1, 65536);
+
+            tickMetricsExportInterval = builder
+                    .comment("How often, in seconds, tick attribution and tick time metrics are written to tickMetricsFile in the Prometheus text format. 0 disables the export.")
+                    .translation("forge.configgui.tickMetricsExportInterval")
+                    .defineInRange("tickMetricsExportInterval", 0, 0, 3600);
+
+            tickMetricsFile = builder
+                    .comment("The file tick metrics are written to, relative to the game directory.")
+                    .translation("forge.configgui.tickMetricsFile")
+                    .define("tickMetricsFile", "forge_tick_metrics.prom");
+
             builder.pop();
         }
     }
@@ -28,6 +28,7 @@ import java.util.stream.Collectors;
 
 import net.minecraftforge.fml.config.IConfigSpec;
 import net.minecraftforge.fml.loading.FMLEnvironment;
+import net.minecraftforge.network.ConfigSync;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 
@@ -119,6 +120,7 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
 
     public void afterReload() {
         this.resetCaches(getValues().valueMap().values());
+        ConfigSync.INSTANCE.invalidate();
     }
 
     private void resetCaches(final Iterable<Object> configValues) {
@@ -121,11 +121,10 @@ import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeSpecialEffects;
 import net.minecraft.world.level.biome.BiomeGenerationSettings;
 import net.minecraft.world.level.biome.MobSpawnSettings;
-import net.minecraftforge.common.loot.IGlobalLootModifier;
-import net.minecraftforge.common.loot.LootModifierManager;
 import net.minecraftforge.common.loot.LootTableIdCondition;
 import net.minecraftforge.common.util.BlockSnapshot;
 import net.minecraftforge.common.util.Lazy;
+import net.minecraftforge.common.util.ListenerPresence;
 import net.minecraftforge.common.util.MavenVersionStringHelper;
 import net.minecraftforge.event.AnvilUpdateEvent;
 import net.minecraftforge.event.DifficultyChangeEvent;
@@ -238,8 +237,13 @@ public class ForgeHooks
         return event;
     }
 
+    private static final ListenerPresence LIVING_TICK_LISTENERS = new ListenerPresence(LivingTickEvent.class);
+
     public static boolean onLivingTick(LivingEntity entity)
     {
+        // Runs for every living entity each tick, so don't even create the event if nothing listens
+        if (!LIVING_TICK_LISTENERS.hasListeners())
+            return false;
         return MinecraftForge.EVENT_BUS.post(new LivingTickEvent(entity));
     }
 
@@ -1158,11 +1162,7 @@ public class ForgeHooks
      */
     public static ObjectArrayList<ItemStack> modifyLoot(ResourceLocation lootTableId, ObjectArrayList<ItemStack> generatedLoot, LootContext context) {
         context.setQueriedLootTableId(lootTableId); // In case the ID was set via copy constructor, this will be ignored: intended
-        LootModifierManager man = ForgeInternalHandler.getLootModifierManager();
-        for (IGlobalLootModifier mod : man.getAllLootMods()) {
-            generatedLoot = mod.apply(generatedLoot, context);
-        }
-        return generatedLoot;
+        return ForgeInternalHandler.getLootModifierManager().modifyLoot(lootTableId, generatedLoot, context);
     }
 
     public static List<String> getModPacks()
@@ -1211,6 +1211,8 @@ public class ForgeHooks
 
     public static void onEntityEnterSection(Entity entity, long packedOldPos, long packedNewPos)
     {
+        if (entity instanceof ServerPlayer player)
+            player.serverLevel().getNearbyPlayerIndex().move(player, packedNewPos);
         MinecraftForge.EVENT_BUS.post(new EntityEvent.EnteringSection(entity, packedOldPos, packedNewPos));
     }
 
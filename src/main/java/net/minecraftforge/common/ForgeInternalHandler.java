@@ -27,9 +27,11 @@ import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.TickEvent.ClientTickEvent;
 import net.minecraftforge.event.TickEvent.ServerTickEvent;
 import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.network.filters.PayloadBundler;
 import net.minecraftforge.common.util.LogicalSidedProvider;
 import net.minecraftforge.server.command.ForgeCommand;
 import net.minecraftforge.server.command.ConfigCommand;
+import net.minecraftforge.server.timings.TickAttribution;
 
 public class ForgeInternalHandler
 {
@@ -67,11 +69,18 @@ public class ForgeInternalHandler
     public void onServerTick(ServerTickEvent event)
     {
         WorldWorkerManager.tick(event.phase == TickEvent.Phase.START);
+        if (event.phase == TickEvent.Phase.END)
+        {
+            TickAttribution.onServerTick(event.getServer());
+            PayloadBundler.flushAll();
+        }
     }
 
     @SubscribeEvent
     public void checkSettings(ClientTickEvent event)
     {
+        if (event.phase == TickEvent.Phase.END)
+            PayloadBundler.flushAll();
         //if (event.phase == Phase.END)
         //    CloudRenderer.updateCloudSettings();
     }
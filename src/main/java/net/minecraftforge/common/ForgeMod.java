@@ -83,6 +83,7 @@ import net.minecraftforge.data.event.GatherDataEvent;
 import net.minecraftforge.network.filters.VanillaPacketSplitter;
 import net.minecraftforge.server.command.EnumArgument;
 import net.minecraftforge.server.command.ModIdArgument;
+import net.minecraftforge.server.command.ParallelChunkGenWorker;
 import net.minecraftforge.server.permission.events.PermissionGatherEvent;
 import net.minecraftforge.server.permission.nodes.PermissionNode;
 import net.minecraftforge.server.permission.nodes.PermissionTypes;
@@ -94,6 +95,7 @@ import org.apache.logging.log4j.Logger;
 
 import net.minecraft.data.DataGenerator;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.common.brewing.BrewingRecipeRegistry;
 import net.minecraftforge.common.crafting.CompoundIngredient;
 import net.minecraftforge.common.crafting.ConditionalRecipe;
 import net.minecraftforge.common.crafting.CraftingHelper;
@@ -486,11 +488,13 @@ public class ForgeMod
     public void serverStopping(ServerStoppingEvent evt)
     {
         WorldWorkerManager.clear();
+        ParallelChunkGenWorker.clear();
     }
 
     public void mappingChanged(IdMappingEvent evt)
     {
         Ingredient.invalidateAll();
+        BrewingRecipeRegistry.clearCaches();
     }
 
     public void gatherData(GatherDataEvent event)
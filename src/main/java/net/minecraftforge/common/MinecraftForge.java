@@ -11,6 +11,8 @@ import net.minecraftforge.eventbus.api.BusBuilder;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.loading.FMLEnvironment;
 import net.minecraftforge.network.DualStackUtils;
+import net.minecraftforge.server.timings.TickProfiler;
+import net.minecraftforge.server.timings.TimedEventBus;
 import net.minecraftforge.versions.forge.ForgeVersion;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,8 +28,10 @@ public class MinecraftForge
      * TERRAIN_GEN_BUS for terrain gen events
      * ORE_GEN_BUS for ore gen events
      * EVENT_BUS for everything else
+     * <p>
+     * Time spent dispatching events on EVENT_BUS is recorded by {@link TickProfiler#EVENT_DISPATCH} while it is enabled.
      */
-    public static final IEventBus EVENT_BUS = BusBuilder.builder().startShutdown().useModLauncher().build();
+    public static final IEventBus EVENT_BUS = new TimedEventBus(BusBuilder.builder().startShutdown().useModLauncher().build(), TickProfiler.EVENT_DISPATCH);
 
     static final ForgeInternalHandler INTERNAL_HANDLER = new ForgeInternalHandler();
     private static final Logger LOGGER = LogManager.getLogger();
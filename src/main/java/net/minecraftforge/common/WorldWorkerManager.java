@@ -7,67 +7,183 @@ package net.minecraftforge.common;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Runs {@link IWorker}s with the time left over at the end of every server tick.
+ * <p>
+ * Workers share the time in proportion to their {@link IWorker#getWeight() weight}: the worker which has received the
+ * least time relative to its weight always runs next. A worker can also limit how much time it is given in a single tick
+ * with {@link IWorker#getTickQuota()}.
+ * <p>
+ * The time given to workers is whatever is left of the 50ms tick. If the tick has already used it up, the workers still
+ * get a minimum amount of time, which shrinks while the server is running behind and grows back once it catches up.
+ */
 public class WorldWorkerManager
 {
-    private static List<IWorker> workers = new ArrayList<IWorker>();
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MAX_MIN_BUDGET = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MIN_MIN_BUDGET = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long LAGGING_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(45);
+
+    private static final Queue<IWorker> added = new ConcurrentLinkedQueue<>();
+    private static final List<Entry> workers = new ArrayList<>();
     private static long startTime = -1;
-    private static int index = 0;
+    private static long averageTickNanos = 0;
+    private static long minBudget = MAX_MIN_BUDGET;
 
     public static void tick(boolean start)
     {
+        long now = System.nanoTime();
         if (start)
         {
-            startTime = System.currentTimeMillis();
+            startTime = now;
             return;
         }
-
-        index = 0;
-        IWorker task = getNext();
-        if (task == null)
+        if (startTime == -1)
             return;
 
-        long time = 50 - (System.currentTimeMillis() - startTime);
-        if (time < 10)
-            time = 10; //If ticks are lagging, give us at least 10ms to do something.
-        time += System.currentTimeMillis();
+        long budget = getBudget(now - startTime);
+        long end = now + budget;
 
-        while (System.currentTimeMillis() < time && task != null)
+        IWorker worker;
+        while ((worker = added.poll()) != null)
+            workers.add(new Entry(worker, getMinVirtualTime()));
+
+        for (Entry entry : workers)
+            entry.beginTick();
+
+        Entry entry;
+        while (now < end && (entry = getNext()) != null)
         {
-            boolean again = task.doWork();
+            boolean again = entry.worker.doWork();
+            long after = System.nanoTime();
+            entry.record(after - now);
+            now = after;
 
-            if (!task.hasWork())
-            {
-                remove(task);
-                task = getNext();
-            }
+            if (!entry.worker.hasWork())
+                workers.remove(entry);
             else if (!again)
-            {
-                task = getNext();
-            }
+                entry.done = true;
+        }
+
+        // Track the full tick length, including the workers, so their own time also counts towards lag.
+        long tickNanos = now - startTime;
+        averageTickNanos = averageTickNanos == 0 ? tickNanos : (averageTickNanos * 7 + tickNanos) / 8;
+        startTime = -1;
+    }
+
+    private static long getBudget(long elapsed)
+    {
+        if (averageTickNanos > LAGGING_TICK_NANOS)
+            minBudget = Math.max(MIN_MIN_BUDGET, minBudget / 2);
+        else
+            minBudget = Math.min(MAX_MIN_BUDGET, minBudget * 2);
+        return Math.max(minBudget, TICK_NANOS - elapsed);
+    }
+
+    private static Entry getNext()
+    {
+        Entry next = null;
+        for (Entry entry : workers)
+        {
+            if (!entry.isRunnable())
+                continue;
+            if (next == null || entry.virtualTime < next.virtualTime)
+                next = entry;
         }
+        return next;
     }
 
-    public static synchronized void addWorker(IWorker worker)
+    private static long getMinVirtualTime()
     {
-        workers.add(worker);
+        long min = Long.MAX_VALUE;
+        for (Entry entry : workers)
+            min = Math.min(min, entry.virtualTime);
+        return min == Long.MAX_VALUE ? 0 : min;
     }
 
-    private static synchronized IWorker getNext()
+    /**
+     * Adds a worker, which will start running at the end of the next server tick. Can be called from any thread.
+     */
+    public static void addWorker(IWorker worker)
     {
-        return workers.size() > index ? workers.get(index++) : null;
+        added.add(worker);
     }
 
-    private static synchronized void remove(IWorker worker)
+    /**
+     * @return A snapshot of the time used by every worker, in the order they were added. Only call this from the server thread.
+     */
+    public static List<WorkerStats> getStats()
     {
-        workers.remove(worker);
-        index--;
+        List<WorkerStats> stats = new ArrayList<>(workers.size());
+        for (Entry entry : workers)
+            stats.add(new WorkerStats(entry.worker, entry.totalNanos, entry.tickNanos, entry.calls, entry.worker.getBacklog()));
+        return stats;
     }
 
     //Internal only, used to clear everything when the server shuts down.
-    public static synchronized void clear()
+    public static void clear()
     {
+        added.clear();
         workers.clear();
+        startTime = -1;
+        averageTickNanos = 0;
+        minBudget = MAX_MIN_BUDGET;
+    }
+
+    private static class Entry
+    {
+        private final IWorker worker;
+        private final int weight;
+        private long virtualTime;
+        private long totalNanos;
+        private long tickNanos;
+        private long calls;
+        private boolean done;
+
+        private Entry(IWorker worker, long virtualTime)
+        {
+            this.worker = worker;
+            this.weight = Math.max(1, worker.getWeight());
+            this.virtualTime = virtualTime;
+        }
+
+        private void beginTick()
+        {
+            tickNanos = 0;
+            done = false;
+        }
+
+        private boolean isRunnable()
+        {
+            if (done)
+                return false;
+            long quota = worker.getTickQuota();
+            return quota <= 0 || tickNanos < quota;
+        }
+
+        private void record(long nanos)
+        {
+            virtualTime += nanos / weight;
+            totalNanos += nanos;
+            tickNanos += nanos;
+            calls++;
+        }
+    }
+
+    /**
+     * The time used by a worker.
+     *
+     * @param totalNanos The total time spent in {@link IWorker#doWork()}
+     * @param tickNanos  The time spent in {@link IWorker#doWork()} during the last tick
+     * @param calls      The number of times {@link IWorker#doWork()} was called
+     * @param backlog    The value of {@link IWorker#getBacklog()}
+     */
+    public record WorkerStats(IWorker worker, long totalNanos, long tickNanos, long calls, long backlog)
+    {
     }
 
     public static interface IWorker
@@ -79,5 +195,31 @@ public class WorldWorkerManager
          * Returning false will skip calling this worker until next tick.
          */
         boolean doWork();
+
+        /**
+         * The share of the available time this worker gets, relative to the other workers. A worker with weight 2 is given
+         * twice as much time as a worker with weight 1 when both have work. Read once when the worker is added.
+         */
+        default int getWeight()
+        {
+            return 1;
+        }
+
+        /**
+         * The maximum time in nanoseconds this worker may run for in a single tick, or 0 for no limit.
+         * The last call to {@link #doWork()} may go over the limit.
+         */
+        default long getTickQuota()
+        {
+            return 0;
+        }
+
+        /**
+         * The amount of work this worker has left, in whatever unit suits it, or -1 if unknown. Only used for statistics.
+         */
+        default long getBacklog()
+        {
+            return -1;
+        }
     }
 }
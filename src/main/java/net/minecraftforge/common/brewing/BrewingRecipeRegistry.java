@@ -7,14 +7,37 @@ package net.minecraftforge.common.brewing;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.core.NonNullList;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 public class BrewingRecipeRegistry {
 
+    private static final int MAX_CACHED_OUTPUTS = 256;
+    private static final int[] NO_RECIPES = new int[0];
+
     private static List<IBrewingRecipe> recipes = new ArrayList<IBrewingRecipe>();
+    @Nullable
+    private static volatile RecipeIndex index;
+    // Outputs of recipes which only depend on the items and their tags, most recently used last
+    private static final Map<OutputKey, ItemStack> outputs = new LinkedHashMap<>(16, 0.75F, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<OutputKey, ItemStack> eldest)
+        {
+            return size() > MAX_CACHED_OUTPUTS;
+        }
+    };
 
     static
     {
@@ -46,7 +69,9 @@ public class BrewingRecipeRegistry {
      */
     public static boolean addRecipe(IBrewingRecipe recipe)
     {
-        return recipes.add(recipe);
+        boolean added = recipes.add(recipe);
+        clearCaches();
+        return added;
     }
 
     /**
@@ -58,15 +83,38 @@ public class BrewingRecipeRegistry {
         if (input.isEmpty() || input.getCount() != 1) return ItemStack.EMPTY;
         if (ingredient.isEmpty()) return ItemStack.EMPTY;
 
-        for (IBrewingRecipe recipe : recipes)
+        OutputKey key = new OutputKey(input.getItem(), input.getTag(), ingredient.getItem(), ingredient.getTag());
+        synchronized (outputs)
+        {
+            ItemStack cached = outputs.get(key);
+            if (cached != null)
+                return cached.copy();
+        }
+
+        RecipeIndex index = getIndex();
+        // Only the recipes indexed by the ingredient's item and the fallbacks can match, checked in the order they were added
+        int[] indexed = index.byIngredient.getOrDefault(ingredient.getItem(), NO_RECIPES);
+        int[] fallback = index.fallback;
+        boolean cacheable = true;
+        ItemStack output = ItemStack.EMPTY;
+        for (int i = 0, j = 0; i < indexed.length || j < fallback.length; )
         {
-            ItemStack output = recipe.getOutput(input, ingredient);
+            int next = j >= fallback.length || (i < indexed.length && indexed[i] < fallback[j]) ? indexed[i++] : fallback[j++];
+            IBrewingRecipe recipe = recipes.get(next);
+            cacheable &= isCacheable(recipe);
+            output = recipe.getOutput(input, ingredient);
             if (!output.isEmpty())
+                break;
+        }
+
+        if (cacheable)
+        {
+            synchronized (outputs)
             {
-                return output;
+                outputs.put(key.copy(), output.copy());
             }
         }
-        return ItemStack.EMPTY;
+        return output;
     }
 
     /**
@@ -121,9 +169,12 @@ public class BrewingRecipeRegistry {
     {
         if (stack.isEmpty()) return false;
 
-        for (IBrewingRecipe recipe : recipes)
+        RecipeIndex index = getIndex();
+        if (index.byIngredient.containsKey(stack.getItem()))
+            return true;
+        for (int i : index.fallback)
         {
-            if (recipe.isIngredient(stack))
+            if (recipes.get(i).isIngredient(stack))
             {
                 return true;
             }
@@ -137,9 +188,12 @@ public class BrewingRecipeRegistry {
      */
     public static boolean isValidInput(ItemStack stack)
     {
-        for (IBrewingRecipe recipe : recipes)
+        RecipeIndex index = getIndex();
+        if (index.byInput.containsKey(stack.getItem()))
+            return true;
+        for (int i : index.fallback)
         {
-            if (recipe.isInput(stack))
+            if (recipes.get(i).isInput(stack))
             {
                 return true;
             }
@@ -154,4 +208,120 @@ public class BrewingRecipeRegistry {
     {
         return Collections.unmodifiableList(recipes);
     }
+
+    /**
+     * Forgets the indexed recipes and remembered outputs. Called when recipes are added, and when the items of
+     * ingredients may have changed.
+     */
+    @ApiStatus.Internal
+    public static void clearCaches()
+    {
+        index = null;
+        synchronized (outputs)
+        {
+            outputs.clear();
+        }
+    }
+
+    private static RecipeIndex getIndex()
+    {
+        RecipeIndex index = BrewingRecipeRegistry.index;
+        if (index == null)
+        {
+            synchronized (outputs)
+            {
+                index = BrewingRecipeRegistry.index;
+                if (index == null)
+                    BrewingRecipeRegistry.index = index = new RecipeIndex(recipes);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Plain {@link BrewingRecipe}s only match the items of their ingredients, so they can be looked up by item.
+     * Subclasses may override the matching, so they aren't indexed.
+     */
+    private static boolean isIndexable(IBrewingRecipe recipe)
+    {
+        return recipe.getClass() == BrewingRecipe.class
+                && isIndexable(((BrewingRecipe) recipe).getInput())
+                && isIndexable(((BrewingRecipe) recipe).getIngredient());
+    }
+
+    private static boolean isIndexable(Ingredient ingredient)
+    {
+        // Empty vanilla ingredients match empty stacks, which have no item to look up
+        return ingredient.isVanilla() && !ingredient.isEmpty();
+    }
+
+    /**
+     * Whether the output of the recipe only depends on the items and their tags, so it can be remembered.
+     */
+    private static boolean isCacheable(IBrewingRecipe recipe)
+    {
+        return recipe.getClass() == VanillaBrewingRecipe.class || isIndexable(recipe);
+    }
+
+    private static final class RecipeIndex
+    {
+        // Positions of the recipes in the list, in ascending order
+        private final Map<Item, int[]> byIngredient;
+        private final Map<Item, int[]> byInput;
+        private final int[] fallback;
+
+        private RecipeIndex(List<IBrewingRecipe> recipes)
+        {
+            Map<Item, IntArrayList> byIngredient = new Reference2ObjectOpenHashMap<>();
+            Map<Item, IntArrayList> byInput = new Reference2ObjectOpenHashMap<>();
+            IntArrayList fallback = new IntArrayList();
+            for (int i = 0; i < recipes.size(); i++)
+            {
+                IBrewingRecipe recipe = recipes.get(i);
+                if (isIndexable(recipe))
+                {
+                    add(byIngredient, ((BrewingRecipe) recipe).getIngredient(), i);
+                    add(byInput, ((BrewingRecipe) recipe).getInput(), i);
+                }
+                else
+                {
+                    fallback.add(i);
+                }
+            }
+            this.byIngredient = toArrays(byIngredient);
+            this.byInput = toArrays(byInput);
+            this.fallback = fallback.toIntArray();
+        }
+
+        private static void add(Map<Item, IntArrayList> map, Ingredient ingredient, int position)
+        {
+            // Pick up new items if the ingredient was invalidated, like test would the next time it is used
+            ingredient.checkInvalidation();
+            for (ItemStack stack : ingredient.getItems())
+            {
+                IntArrayList positions = map.computeIfAbsent(stack.getItem(), item -> new IntArrayList());
+                // An ingredient can list the same item more than once
+                if (positions.isEmpty() || positions.getInt(positions.size() - 1) != position)
+                    positions.add(position);
+            }
+        }
+
+        private static Map<Item, int[]> toArrays(Map<Item, IntArrayList> map)
+        {
+            Map<Item, int[]> arrays = new Reference2ObjectOpenHashMap<>(map.size());
+            map.forEach((item, positions) -> arrays.put(item, positions.toIntArray()));
+            return arrays;
+        }
+    }
+
+    private record OutputKey(Item input, @Nullable CompoundTag inputTag, Item ingredient, @Nullable CompoundTag ingredientTag)
+    {
+        /**
+         * Copies the tags, which belong to the stacks and can still change.
+         */
+        private OutputKey copy()
+        {
+            return new OutputKey(input, inputTag == null ? null : inputTag.copy(), ingredient, ingredientTag == null ? null : ingredientTag.copy());
+        }
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.capabilities;
+
+import java.lang.ref.WeakReference;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.common.util.NonNullConsumer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps the capability of the block entity at a position, for code which uses it over and over again, like hoppers and
+ * item pipes, so that it doesn't have to look up the block entity and query its capability every time.
+ * <p>
+ * A found capability is kept until its {@link LazyOptional} is invalidated, which happens at the latest when the block
+ * entity is removed or its chunk unloads. While no capability is found, the position is checked again on every call.
+ * <p>
+ * Caches are not thread safe, and should only be used on the thread of their level.
+ *
+ * @param <T> the type of the capability
+ */
+public final class BlockCapabilityCache<T>
+{
+    private final Capability<T> capability;
+    private final Level level;
+    private final BlockPos pos;
+    @Nullable
+    private final Direction side;
+
+    private LazyOptional<T> cached = LazyOptional.empty();
+    @Nullable
+    private BlockEntity blockEntity;
+
+    private BlockCapabilityCache(Capability<T> capability, Level level, BlockPos pos, @Nullable Direction side)
+    {
+        this.capability = capability;
+        this.level = level;
+        this.pos = pos.immutable();
+        this.side = side;
+    }
+
+    /**
+     * @param side the side the capability is accessed from, as passed to {@link ICapabilityProvider#getCapability}
+     */
+    public static <T> BlockCapabilityCache<T> create(Capability<T> capability, Level level, BlockPos pos, @Nullable Direction side)
+    {
+        return new BlockCapabilityCache<>(capability, level, pos, side);
+    }
+
+    /**
+     * Returns the given cache if it is for the same capability, level, position and side, or a new cache otherwise.
+     * Useful for keeping a cache in a field when its target can change.
+     */
+    public static <T> BlockCapabilityCache<T> reuse(@Nullable BlockCapabilityCache<T> cache, Capability<T> capability, Level level, BlockPos pos, @Nullable Direction side)
+    {
+        if (cache != null && cache.capability == capability && cache.level == level && cache.side == side && cache.pos.equals(pos))
+            return cache;
+        return create(capability, level, pos, side);
+    }
+
+    /**
+     * @return the capability, or an empty optional if there is no block entity or it doesn't have the capability
+     */
+    public LazyOptional<T> get()
+    {
+        if (!this.cached.isPresent() || this.blockEntity == null || this.blockEntity.isRemoved())
+            resolve();
+        return this.cached;
+    }
+
+    /**
+     * @return the capability, or null if there is none
+     */
+    @Nullable
+    public T getCapability()
+    {
+        return get().orElse(null);
+    }
+
+    /**
+     * @return the block entity the capability belongs to, or null if there is no capability
+     */
+    @Nullable
+    public BlockEntity getBlockEntity()
+    {
+        get();
+        return this.blockEntity;
+    }
+
+    public Level getLevel()
+    {
+        return this.level;
+    }
+
+    public BlockPos getPos()
+    {
+        return this.pos;
+    }
+
+    @Nullable
+    public Direction getSide()
+    {
+        return this.side;
+    }
+
+    private void resolve()
+    {
+        this.cached = LazyOptional.empty();
+        this.blockEntity = null;
+
+        if (!this.level.getBlockState(this.pos).hasBlockEntity())
+            return;
+        BlockEntity blockEntity = this.level.getBlockEntity(this.pos);
+        if (blockEntity == null)
+            return;
+        LazyOptional<T> cap = blockEntity.getCapability(this.capability, this.side);
+        if (cap.isPresent())
+        {
+            this.cached = cap;
+            this.blockEntity = blockEntity;
+            cap.addListener(new Invalidator<>(this));
+        }
+    }
+
+    private void invalidate(LazyOptional<?> invalidated)
+    {
+        // Only forget the block entity if it is still the one which was invalidated
+        if (this.cached == invalidated)
+        {
+            this.cached = LazyOptional.empty();
+            this.blockEntity = null;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BlockCapabilityCache{" + this.capability.getName() + " at " + this.pos + " from " + this.side + "}";
+    }
+
+    /**
+     * Only weakly references the cache, so that a cache which is no longer used isn't kept alive by the capability.
+     */
+    private static class Invalidator<T> implements NonNullConsumer<LazyOptional<T>>
+    {
+        private final WeakReference<BlockCapabilityCache<T>> cache;
+
+        private Invalidator(BlockCapabilityCache<T> cache)
+        {
+            this.cache = new WeakReference<>(cache);
+        }
+
+        @Override
+        public void accept(LazyOptional<T> optional)
+        {
+            BlockCapabilityCache<T> cache = this.cache.get();
+            if (cache != null)
+                cache.invalidate(optional);
+        }
+    }
+}
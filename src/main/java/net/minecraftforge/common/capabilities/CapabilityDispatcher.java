@@ -7,9 +7,13 @@ package net.minecraftforge.common.capabilities;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
 
@@ -31,15 +35,41 @@ import org.jetbrains.annotations.Nullable;
  *
  * Internally the handlers are baked into arrays for fast iteration.
  * The ResourceLocations will be used for the NBT Key when serializing.
+ *
+ * Providers implementing {@link IStaticCapabilityProvider} are skipped for capabilities they did not declare.
+ * The providers left for a capability are remembered, and are still queried in order so the first present one wins.
+ *
+ * When comparing dispatchers, providers implementing {@link IComparableCapability} are compared directly instead of
+ * through their serialized NBT.
  */
 @ParametersAreNonnullByDefault
 @MethodsReturnNonnullByDefault
 public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>, ICapabilityProvider
 {
+    private static final int CACHE_SIZE = 8;
+
     private ICapabilityProvider[] caps;
     private INBTSerializable<Tag>[] writers;
     private String[] names;
     private final List<Runnable> listeners;
+    /**
+     * The capabilities each provider declared through {@link IStaticCapabilityProvider}, or null if it may provide anything.
+     * The array itself is null if no provider declared its capabilities.
+     */
+    @Nullable
+    private final Set<Capability<?>>[] declared;
+    private final boolean hasDeclarations;
+    /**
+     * The providers which may provide each cached capability, or null if no provider declared its capabilities.
+     * Entries are immutable, so they can be shared between threads without further synchronization.
+     */
+    @Nullable
+    private final ProviderList[] cache;
+    @Nullable
+    private WeakReference<CapabilityDispatcher> lastCompared;
+    private long lastRevision;
+    private long lastOtherRevision;
+    private boolean lastResult;
 
     public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list, List<Runnable> listeners)
     {
@@ -78,34 +108,102 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
         caps = lstCaps.toArray(new ICapabilityProvider[lstCaps.size()]);
         writers = lstWriters.toArray(new INBTSerializable[lstWriters.size()]);
         names = lstNames.toArray(new String[lstNames.size()]);
+        Set<Capability<?>>[] declared = null;
+        for (int x = 0; x < caps.length; x++)
+        {
+            if (caps[x] instanceof IStaticCapabilityProvider staticProvider)
+            {
+                if (declared == null)
+                    declared = new Set[caps.length];
+                declared[x] = Set.copyOf(staticProvider.getProvidableCapabilities());
+            }
+        }
+        this.declared = declared;
+        this.hasDeclarations = declared != null;
+        this.cache = declared != null ? new ProviderList[CACHE_SIZE] : null;
     }
 
 
     @Override
     public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side)
     {
-        for (ICapabilityProvider c : caps)
+        if (!hasDeclarations)
         {
-            LazyOptional<T> ret = c.getCapability(cap, side);
-            //noinspection ConstantConditions
-            if (ret == null)
+            for (int x = 0; x < caps.length; x++)
             {
-                throw new RuntimeException(
-                        String.format(
-                                Locale.ENGLISH,
-                                "Provider %s.getCapability() returned null; return LazyOptional.empty() instead!",
-                                c.getClass().getTypeName()
-                        )
-                );
+                LazyOptional<T> ret = query(x, cap, side);
+                if (ret.isPresent())
+                    return ret;
             }
+            return LazyOptional.empty();
+        }
+
+        for (int x : getProviders(cap))
+        {
+            LazyOptional<T> ret = query(x, cap, side);
             if (ret.isPresent())
-            {
                 return ret;
-            }
         }
         return LazyOptional.empty();
     }
 
+    private <T> LazyOptional<T> query(int index, Capability<T> cap, @Nullable Direction side)
+    {
+        ICapabilityProvider c = caps[index];
+        LazyOptional<T> ret = c.getCapability(cap, side);
+        //noinspection ConstantConditions
+        if (ret == null)
+        {
+            throw new RuntimeException(
+                    String.format(
+                            Locale.ENGLISH,
+                            "Provider %s.getCapability() returned null; return LazyOptional.empty() instead!",
+                            c.getClass().getTypeName()
+                    )
+            );
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the indexes of the providers which may provide the capability, in the order they are queried.
+     * Only a small number of capabilities is remembered per dispatcher, the providers for any others are found again
+     * on every lookup.
+     */
+    private int[] getProviders(Capability<?> cap)
+    {
+        for (int x = 0; x < cache.length; x++)
+        {
+            ProviderList entry = cache[x];
+            if (entry == null)
+            {
+                // Two threads may both fill an empty slot, which only wastes a lookup since both find the same providers
+                entry = new ProviderList(cap, findProviders(cap));
+                cache[x] = entry;
+                return entry.providers;
+            }
+            if (entry.cap == cap)
+                return entry.providers;
+        }
+        return findProviders(cap);
+    }
+
+    private int[] findProviders(Capability<?> cap)
+    {
+        int[] providers = new int[caps.length];
+        int count = 0;
+        for (int x = 0; x < caps.length; x++)
+        {
+            if (declared[x] == null || declared[x].contains(cap))
+                providers[count++] = x;
+        }
+        return Arrays.copyOf(providers, count);
+    }
+
+    private record ProviderList(Capability<?> cap, int[] providers)
+    {
+    }
+
     @Override
     public CompoundTag serializeNBT()
     {
@@ -133,7 +231,56 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
     {                                                        // Only compares serializeable caps.
         if (other == null) return this.writers.length == 0;  // Done this way so we can do some pre-checks before doing the costly NBT serialization and compare
         if (this.writers.length == 0) return other.writers.length == 0;
-        return this.serializeNBT().equals(other.serializeNBT());
+        if (other == this) return true;
+        if (!Arrays.equals(this.names, other.names)) return this.serializeNBT().equals(other.serializeNBT());
+
+        long revision = getContentRevision();
+        long otherRevision = other.getContentRevision();
+        if (revision >= 0 && otherRevision >= 0 && lastCompared != null && lastCompared.get() == other
+                && lastRevision == revision && lastOtherRevision == otherRevision)
+        {
+            return lastResult;
+        }
+
+        boolean result = true;
+        for (int x = 0; x < writers.length && result; x++)
+            result = areCompatible(writers[x], other.writers[x]);
+
+        if (revision >= 0 && otherRevision >= 0)
+        {
+            if (lastCompared == null || lastCompared.get() != other)
+                lastCompared = new WeakReference<>(other);
+            lastRevision = revision;
+            lastOtherRevision = otherRevision;
+            lastResult = result;
+        }
+        return result;
+    }
+
+    private static boolean areCompatible(INBTSerializable<Tag> writer, INBTSerializable<Tag> other)
+    {
+        if (writer instanceof IComparableCapability comparable && writer.getClass() == other.getClass())
+        {
+            IComparableCapability otherComparable = (IComparableCapability) other;
+            return comparable.contentHash() == otherComparable.contentHash() && comparable.contentEquals(otherComparable);
+        }
+        return Objects.equals(writer.serializeNBT(), other.serializeNBT());
+    }
+
+    /**
+     * @return The sum of the content revisions of every serializable provider, or -1 if any of them does not track changes
+     */
+    private long getContentRevision()
+    {
+        long revision = 0;
+        for (INBTSerializable<Tag> writer : writers)
+        {
+            long writerRevision = writer instanceof IComparableCapability comparable ? comparable.getContentRevision() : -1;
+            if (writerRevision < 0)
+                return -1;
+            revision += writerRevision;
+        }
+        return revision;
     }
 
     public void invalidate()
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.capabilities;
+
+/**
+ * Optional extension for serializable capability providers attached to item stacks, which lets
+ * {@link CapabilityDispatcher#areCompatible} compare two providers without serializing them to NBT.
+ * <p>
+ * The methods are only ever called with another provider of the exact same class, attached under the same name.
+ * Their results must match what comparing the output of {@link net.minecraftforge.common.util.INBTSerializable#serializeNBT()}
+ * would give.
+ */
+public interface IComparableCapability
+{
+    /**
+     * @param other A provider of the same class as this one
+     * @return {@code true} if both providers would serialize to equal tags
+     */
+    boolean contentEquals(IComparableCapability other);
+
+    /**
+     * A hash of the serialized contents. Providers with different hashes are known to not be equal.
+     */
+    int contentHash();
+
+    /**
+     * Returns a counter which increases every time the serialized contents of this provider change,
+     * or a negative value if the provider does not track changes.
+     * When every provider of two dispatchers tracks changes, the result of comparing them is remembered until one changes.
+     */
+    default long getContentRevision()
+    {
+        return -1;
+    }
+}
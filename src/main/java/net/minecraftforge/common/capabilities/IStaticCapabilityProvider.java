@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.capabilities;
+
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link ICapabilityProvider} which declares up front every {@link Capability} it can ever return.
+ * <p>
+ * Implementing this is optional. When a provider attached through the {@link net.minecraftforge.event.AttachCapabilitiesEvent}
+ * implements it, the {@link CapabilityDispatcher} will never query it for capabilities that are not in the declared set.
+ */
+public interface IStaticCapabilityProvider extends ICapabilityProvider
+{
+    /**
+     * Returns every capability this provider may return a present {@link net.minecraftforge.common.util.LazyOptional} for,
+     * on any side. This is queried once when the provider is attached, and must not change afterwards.
+     *
+     * @return The set of capabilities this provider can provide
+     */
+    @NotNull
+    Set<Capability<?>> getProvidableCapabilities();
+}
@@ -8,6 +8,7 @@ package net.minecraftforge.common.extensions;
 import java.util.Collection;
 import java.util.Collections;
 
+import net.minecraft.world.phys.AABB;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
 import net.minecraftforge.entity.PartEntity;
 
@@ -34,4 +35,13 @@ public interface IForgeLevel extends ICapabilityProvider
     {
         return Collections.emptyList();
     }
+
+    /**
+     * The part entities in this world which may intersect the given box. This can include parts which do not
+     * intersect the box, so their bounding boxes still have to be checked, but never leaves out a part that does.
+     */
+    public default Collection<PartEntity<?>> getPartEntities(AABB area)
+    {
+        return getPartEntities();
+    }
 }
@@ -12,11 +12,17 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.JsonOps;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.storage.loot.Deserializers;
+import net.minecraft.world.level.storage.loot.LootContext;
+import net.minecraft.world.level.storage.loot.predicates.LootItemCondition;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -39,7 +45,15 @@ public class LootModifierManager extends SimpleJsonResourceReloadListener {
     public static final Logger LOGGER = LogManager.getLogger();
     public static final Gson GSON_INSTANCE = Deserializers.createFunctionSerializer().create();
 
+    private static final int[] NO_MODIFIERS = new int[0];
+
     private Map<ResourceLocation, IGlobalLootModifier> registeredLootModifiers = ImmutableMap.of();
+    private IGlobalLootModifier[] modifiers = new IGlobalLootModifier[0];
+    private ResourceLocation[] modifierIds = new ResourceLocation[0];
+    private AtomicLongArray evaluations = new AtomicLongArray(0);
+    // Indices into modifiers, in layered order, of the modifiers that may apply to a loot table
+    private Map<ResourceLocation, int[]> modifiersByTable = ImmutableMap.of();
+    private int[] unindexedModifiers = NO_MODIFIERS;
     private static final String folder = "loot_modifiers";
 
     public LootModifierManager() {
@@ -83,6 +97,97 @@ public class LootModifierManager extends SimpleJsonResourceReloadListener {
                 .ifPresent(modifier -> builder.put(location, modifier));
         }
         this.registeredLootModifiers = builder.build();
+        buildIndex();
+    }
+
+    /**
+     * Groups the modifiers by the loot table their conditions require, so that modifiers which can not apply to a
+     * loot table are never evaluated for it. Modifiers without a {@link LootTableIdCondition} apply to every table.
+     */
+    private void buildIndex() {
+        int size = registeredLootModifiers.size();
+        IGlobalLootModifier[] modifiers = new IGlobalLootModifier[size];
+        ResourceLocation[] ids = new ResourceLocation[size];
+        ResourceLocation[] targets = new ResourceLocation[size];
+        IntArrayList unindexed = new IntArrayList();
+        int i = 0;
+        for (Map.Entry<ResourceLocation, IGlobalLootModifier> entry : registeredLootModifiers.entrySet()) {
+            modifiers[i] = entry.getValue();
+            ids[i] = entry.getKey();
+            targets[i] = getTargetLootTable(entry.getValue());
+            if (targets[i] == null)
+                unindexed.add(i);
+            i++;
+        }
+
+        // Every table list also contains the unindexed modifiers, merged in so the layered order is kept
+        Map<ResourceLocation, IntArrayList> byTable = new HashMap<>();
+        for (i = 0; i < size; i++) {
+            if (targets[i] != null)
+                byTable.putIfAbsent(targets[i], new IntArrayList());
+        }
+        for (i = 0; i < size; i++) {
+            if (targets[i] == null) {
+                for (IntArrayList list : byTable.values())
+                    list.add(i);
+            } else {
+                byTable.get(targets[i]).add(i);
+            }
+        }
+        Builder<ResourceLocation, int[]> tables = ImmutableMap.builder();
+        byTable.forEach((table, list) -> tables.put(table, list.toIntArray()));
+
+        this.modifiers = modifiers;
+        this.modifierIds = ids;
+        this.evaluations = new AtomicLongArray(size);
+        this.modifiersByTable = tables.build();
+        this.unindexedModifiers = unindexed.toIntArray();
+    }
+
+    /**
+     * @return The loot table the modifier is restricted to by a top level {@link LootTableIdCondition}, or {@code null} if there is none
+     */
+    private static ResourceLocation getTargetLootTable(IGlobalLootModifier modifier) {
+        if (modifier instanceof LootModifier lootModifier && lootModifier.conditions != null) {
+            for (LootItemCondition condition : lootModifier.conditions) {
+                if (condition instanceof LootTableIdCondition tableCondition)
+                    return tableCondition.getTargetLootTableId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies, in layered order, every loot modifier which may apply to the loot table being queried.
+     * <p>
+     * Modifiers are looked up by {@link LootContext#getQueriedLootTableId()}, which is what their
+     * {@link LootTableIdCondition}s test against. It can differ from {@code lootTableId} when the context
+     * was created for another table, or when the table is unknown.
+     *
+     * @param lootTableId The ID of the loot table currently being queried
+     * @param generatedLoot The loot generated by the loot table
+     * @param context The loot context that generated the loot
+     * @return The modified list of drops
+     */
+    public ObjectArrayList<ItemStack> modifyLoot(ResourceLocation lootTableId, ObjectArrayList<ItemStack> generatedLoot, LootContext context) {
+        IGlobalLootModifier[] modifiers = this.modifiers;
+        AtomicLongArray evaluations = this.evaluations;
+        for (int index : modifiersByTable.getOrDefault(context.getQueriedLootTableId(), unindexedModifiers)) {
+            evaluations.incrementAndGet(index);
+            generatedLoot = modifiers[index].apply(generatedLoot, context);
+        }
+        return generatedLoot;
+    }
+
+    /**
+     * The number of times each loot modifier has been evaluated since the last reload, in layered order.
+     * Modifiers skipped because they can not apply to a loot table are not counted.
+     */
+    public Map<ResourceLocation, Long> getEvaluationCounts() {
+        Map<ResourceLocation, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < modifierIds.length; i++)
+            counts.put(modifierIds[i], evaluations.get(i));
+        return counts;
     }
 
     /**
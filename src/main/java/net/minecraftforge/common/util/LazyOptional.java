@@ -5,17 +5,17 @@
 
 package net.minecraftforge.common.util;
 
-import java.util.HashSet;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import net.minecraft.MethodsReturnNonnullByDefault;
 import net.minecraftforge.common.capabilities.Capability;
-import org.apache.commons.lang3.mutable.Mutable;
-import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,7 +34,8 @@ import org.jetbrains.annotations.Nullable;
  * that this accepts a {@link NonNullSupplier}, so the result of the supplier
  * must never be null.
  * <p>
- * The empty instance can be retrieved with {@link #empty()}.
+ * The empty instance can be retrieved with {@link #empty()}, and an already known
+ * value can be wrapped without a supplier through {@link #ofValue(Object)}.
  *
  * @param <T> The type of the optional value.
  */
@@ -43,17 +44,36 @@ import org.jetbrains.annotations.Nullable;
 public class LazyOptional<T>
 {
     private final NonNullSupplier<T> supplier;
-    private final Object lock = new Object();
     // null -> not resolved yet
-    // non-null and contains non-null value -> resolved
-    // non-null and contains null -> resolved, but supplier returned null (contract violation)
-    private Mutable<T> resolved;
-    private Set<NonNullConsumer<LazyOptional<T>>> listeners = new HashSet<>();
+    // RESOLVING -> a thread is currently running the supplier
+    // NULL_VALUE -> resolved, but supplier returned null (contract violation)
+    // anything else -> the resolved value
+    private volatile Object resolved;
+    // null -> no listeners
+    // NonNullConsumer -> a single listener
+    // NonNullConsumer[] -> multiple listeners
+    private Object listeners;
     private boolean isValid = true;
 
+    private static final Object RESOLVING = new Object();
+    private static final Object NULL_VALUE = new Object();
+    private static final NonNullSupplier<?> PRE_RESOLVED = () -> { throw new IllegalStateException("Pre-resolved LazyOptional should never query its supplier"); };
+    private static final VarHandle RESOLVED;
     private static final @NotNull LazyOptional<Void> EMPTY = new LazyOptional<>(null);
     private static final Logger LOGGER = LogManager.getLogger();
 
+    static
+    {
+        try
+        {
+            RESOLVED = MethodHandles.lookup().findVarHandle(LazyOptional.class, "resolved", Object.class);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     /**
      * Construct a new {@link LazyOptional} that wraps the given
      * {@link NonNullSupplier}.
@@ -67,6 +87,22 @@ public class LazyOptional<T>
         return instanceSupplier == null ? empty() : new LazyOptional<>(instanceSupplier);
     }
 
+    /**
+     * Construct a new {@link LazyOptional} holding an already known value.
+     * Unlike {@link #of(NonNullSupplier)} this does not need a supplier, and the value never has to be resolved.
+     *
+     * @param value The value to hold. If null, this method returns {@link #empty()}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> LazyOptional<T> ofValue(final @Nullable T value)
+    {
+        if (value == null)
+            return empty();
+        LazyOptional<T> ret = new LazyOptional<>((NonNullSupplier<T>) PRE_RESOLVED);
+        ret.resolved = value;
+        return ret;
+    }
+
     /**
      * @return The singleton empty instance
      */
@@ -93,25 +129,55 @@ public class LazyOptional<T>
         this.supplier = instanceSupplier;
     }
 
+    @SuppressWarnings("unchecked")
     private @Nullable T getValue()
     {
         if (!isValid || supplier == null)
             return null;
-        if (resolved == null)
+        Object value = resolved;
+        if (value == null || value == RESOLVING)
+            value = resolve(value);
+        return value == NULL_VALUE ? null : (T) value;
+    }
+
+    /**
+     * Runs the supplier exactly once, even when called from multiple threads at the same time.
+     * Threads that lose the race wait for the winning thread to publish its result.
+     */
+    private Object resolve(@Nullable Object value)
+    {
+        int spins = 0;
+        while (true)
         {
-            synchronized (lock)
+            if (value == null && RESOLVED.compareAndSet(this, null, RESOLVING))
             {
-                // resolved == null: Double checked locking to prevent two threads from resolving
-                if (resolved == null)
+                T temp;
+                try
+                {
+                    temp = supplier.get();
+                }
+                catch (Throwable t)
                 {
-                    T temp = supplier.get();
-                    if (temp == null)
-                        LOGGER.catching(Level.WARN, new NullPointerException("Supplier should not return null value"));
-                    resolved = new MutableObject<>(temp);
+                    resolved = null; // Let the next caller try again
+                    throw t;
                 }
+                if (temp == null)
+                    LOGGER.catching(Level.WARN, new NullPointerException("Supplier should not return null value"));
+                Object result = temp == null ? NULL_VALUE : temp;
+                resolved = result;
+                return result;
+            }
+            value = resolved;
+            if (value != null && value != RESOLVING)
+                return value;
+            if (value == RESOLVING)
+            {
+                if (++spins < 64)
+                    Thread.onSpinWait();
+                else
+                    LockSupport.parkNanos(10_000L);
             }
         }
-        return resolved.getValue();
     }
 
     private T getValueUnsafe()
@@ -290,7 +356,24 @@ public class LazyOptional<T>
     {
         if (isPresent())
         {
-            this.listeners.add(listener);
+            Object current = this.listeners;
+            if (current == null)
+            {
+                this.listeners = listener;
+            }
+            else if (current instanceof NonNullConsumer<?>[] array)
+            {
+                for (NonNullConsumer<?> existing : array)
+                    if (existing.equals(listener))
+                        return;
+                NonNullConsumer<?>[] grown = Arrays.copyOf(array, array.length + 1);
+                grown[array.length] = listener;
+                this.listeners = grown;
+            }
+            else if (!current.equals(listener))
+            {
+                this.listeners = new NonNullConsumer<?>[] { (NonNullConsumer<?>) current, listener };
+            }
         }
         else
         {
@@ -317,7 +400,22 @@ public class LazyOptional<T>
         if (this.isValid)
         {
             this.isValid = false;
-            this.listeners.forEach(e -> e.accept(this));
+            Object current = this.listeners;
+            if (current instanceof NonNullConsumer<?>[] array)
+            {
+                for (NonNullConsumer<?> listener : array)
+                    notifyListener(listener);
+            }
+            else if (current != null)
+            {
+                notifyListener((NonNullConsumer<?>) current);
+            }
         }
     }
+
+    @SuppressWarnings("unchecked")
+    private void notifyListener(NonNullConsumer<?> listener)
+    {
+        ((NonNullConsumer<LazyOptional<T>>) listener).accept(this);
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.common.util;
+
+import java.util.function.Consumer;
+
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventListenerHelper;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Checks whether anything listens to an event type on {@link MinecraftForge#EVENT_BUS}, so that hooks which run very
+ * often can skip creating and posting their event when nothing would receive it.
+ * <p>
+ * The check reads the listener list the bus itself dispatches from, including listeners of parent event types, so it
+ * is up to date as soon as a listener is registered or unregistered.
+ */
+@ApiStatus.Internal
+public final class ListenerPresence
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int BUS_ID = findBusId();
+
+    private final ListenerList listeners;
+
+    public ListenerPresence(Class<? extends Event> eventType)
+    {
+        this.listeners = EventListenerHelper.getListenerList(eventType);
+    }
+
+    public boolean hasListeners()
+    {
+        if (BUS_ID < 0)
+            return true;
+        // The list also holds the priorities, which are only there to update the phase of the event
+        for (IEventListener listener : listeners.getListeners(BUS_ID))
+        {
+            if (!(listener instanceof EventPriority))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The bus doesn't expose its id, so register a listener to an event nobody else uses and look for the list it ended
+     * up in.
+     */
+    private static int findBusId()
+    {
+        Consumer<ProbeEvent> probe = event -> {};
+        try
+        {
+            MinecraftForge.EVENT_BUS.addListener(EventPriority.NORMAL, false, ProbeEvent.class, probe);
+            ListenerList list = EventListenerHelper.getListenerList(ProbeEvent.class);
+            for (int id = 0; ; id++)
+            {
+                IEventListener[] listeners;
+                try
+                {
+                    listeners = list.getListeners(id);
+                }
+                catch (IndexOutOfBoundsException e)
+                {
+                    break;
+                }
+                for (IEventListener listener : listeners)
+                {
+                    if (!(listener instanceof EventPriority))
+                        return id;
+                }
+            }
+        }
+        catch (RuntimeException e)
+        {
+            LOGGER.debug("Failed to find the id of the event bus", e);
+        }
+        finally
+        {
+            MinecraftForge.EVENT_BUS.unregister(probe);
+        }
+        LOGGER.warn("Could not find the id of the event bus, events will always be posted");
+        return -1;
+    }
+
+    public static class ProbeEvent extends Event
+    {
+    }
+}
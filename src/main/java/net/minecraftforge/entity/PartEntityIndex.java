@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Entity.RemovalReason;
+import net.minecraft.world.level.entity.EntityInLevelCallback;
+import net.minecraft.world.phys.AABB;
+
+/**
+ * Indexes the {@link PartEntity parts} of a level by the section they are in, so that bounding box queries only have to
+ * look at parts close to the box instead of every part in the level.
+ * <p>
+ * Parts are never added to the level's entity storage, so they are kept up to date through their
+ * {@linkplain Entity#setLevelCallback level callback}, which is called every time they move.
+ */
+@ApiStatus.Internal
+public class PartEntityIndex
+{
+    private final Long2ObjectMap<List<PartEntity<?>>> sections = new Long2ObjectOpenHashMap<>();
+    private final Map<PartEntity<?>, Callback> parts = new IdentityHashMap<>();
+
+    public void add(PartEntity<?> part)
+    {
+        if (parts.containsKey(part))
+            return;
+        Callback callback = new Callback(part);
+        parts.put(part, callback);
+        part.setLevelCallback(callback);
+        callback.section = SectionPos.asLong(part.blockPosition());
+        sections.computeIfAbsent(callback.section, k -> new ArrayList<>()).add(part);
+    }
+
+    public void remove(PartEntity<?> part)
+    {
+        Callback callback = parts.remove(part);
+        if (callback == null)
+            return;
+        part.setLevelCallback(EntityInLevelCallback.NULL);
+        removeFromSection(part, callback.section);
+    }
+
+    /**
+     * Returns the parts which might intersect the given box. The result can contain parts which do not intersect it,
+     * and callers must still check each part's bounding box.
+     */
+    public List<PartEntity<?>> getParts(AABB area)
+    {
+        if (parts.isEmpty())
+            return Collections.emptyList();
+
+        // Any part touching the box has its position within this margin of it. Parts can be resized or have their
+        // bounding box set without moving, so the margin is taken from their current boxes instead of being tracked.
+        double margin = 0;
+        for (PartEntity<?> part : parts.keySet())
+            margin = Math.max(margin, getExtent(part));
+        int minX = SectionPos.posToSectionCoord(area.minX - margin);
+        int minY = SectionPos.posToSectionCoord(area.minY - margin);
+        int minZ = SectionPos.posToSectionCoord(area.minZ - margin);
+        int maxX = SectionPos.posToSectionCoord(area.maxX + margin);
+        int maxY = SectionPos.posToSectionCoord(area.maxY + margin);
+        int maxZ = SectionPos.posToSectionCoord(area.maxZ + margin);
+
+        long count = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (count >= sections.size())
+        {
+            // Visiting every occupied section is cheaper than probing every section in the box.
+            List<PartEntity<?>> result = new ArrayList<>();
+            for (Long2ObjectMap.Entry<List<PartEntity<?>>> entry : sections.long2ObjectEntrySet())
+            {
+                long key = entry.getLongKey();
+                int x = SectionPos.x(key), y = SectionPos.y(key), z = SectionPos.z(key);
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ)
+                    result.addAll(entry.getValue());
+            }
+            return result;
+        }
+
+        List<PartEntity<?>> result = null;
+        for (int x = minX; x <= maxX; x++)
+        {
+            for (int z = minZ; z <= maxZ; z++)
+            {
+                for (int y = minY; y <= maxY; y++)
+                {
+                    List<PartEntity<?>> section = sections.get(SectionPos.asLong(x, y, z));
+                    if (section == null)
+                        continue;
+                    if (result == null)
+                        result = new ArrayList<>(section.size());
+                    result.addAll(section);
+                }
+            }
+        }
+        return result == null ? Collections.emptyList() : result;
+    }
+
+    /**
+     * Returns how far the part's bounding box reaches from its position along any axis. The position is usually at the
+     * bottom center of the box, but nothing stops a part from setting a bounding box which is not.
+     */
+    private static double getExtent(PartEntity<?> part)
+    {
+        AABB box = part.getBoundingBox();
+        double x = part.getX(), y = part.getY(), z = part.getZ();
+        double extent = Math.max(x - box.minX, box.maxX - x);
+        extent = Math.max(extent, Math.max(y - box.minY, box.maxY - y));
+        return Math.max(extent, Math.max(z - box.minZ, box.maxZ - z));
+    }
+
+    private void removeFromSection(PartEntity<?> part, long section)
+    {
+        List<PartEntity<?>> list = sections.get(section);
+        if (list == null)
+            return;
+        list.remove(part);
+        if (list.isEmpty())
+            sections.remove(section);
+    }
+
+    private class Callback implements EntityInLevelCallback
+    {
+        private final PartEntity<?> part;
+        private long section;
+
+        private Callback(PartEntity<?> part)
+        {
+            this.part = part;
+        }
+
+        @Override
+        public void onMove()
+        {
+            long newSection = SectionPos.asLong(part.blockPosition());
+            if (newSection != section)
+            {
+                removeFromSection(part, section);
+                section = newSection;
+                sections.computeIfAbsent(section, k -> new ArrayList<>()).add(part);
+            }
+        }
+
+        @Override
+        public void onRemove(RemovalReason reason)
+        {
+        }
+    }
+}
@@ -88,6 +88,7 @@ import net.minecraftforge.common.ToolAction;
 import net.minecraftforge.common.capabilities.CapabilityDispatcher;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
 import net.minecraftforge.common.util.BlockSnapshot;
+import net.minecraftforge.common.util.ListenerPresence;
 import net.minecraftforge.event.brewing.PlayerBrewedPotionEvent;
 import net.minecraftforge.event.brewing.PotionBrewEvent;
 import net.minecraftforge.event.entity.EntityEvent;
@@ -167,6 +168,26 @@ public class ForgeEventFactory
         return MinecraftForge.EVENT_BUS.post(event);
     }
 
+    private static final ListenerPresence NEIGHBOR_NOTIFY_LISTENERS = new ListenerPresence(NeighborNotifyEvent.class);
+    private static final ListenerPresence PLAY_SOUND_AT_ENTITY_LISTENERS = new ListenerPresence(PlayLevelSoundEvent.AtEntity.class);
+    private static final ListenerPresence PLAY_SOUND_AT_POSITION_LISTENERS = new ListenerPresence(PlayLevelSoundEvent.AtPosition.class);
+
+    /**
+     * Fires {@link NeighborNotifyEvent} for a block notifying all of its neighbors, except the given side.
+     * The block state and the set of sides are only looked up if anything listens to the event.
+     *
+     * @return true if the event was canceled
+     */
+    public static boolean onNeighborNotify(Level level, BlockPos pos, @Nullable Direction skipSide)
+    {
+        if (!NEIGHBOR_NOTIFY_LISTENERS.hasListeners())
+            return false;
+        EnumSet<Direction> notifiedSides = EnumSet.allOf(Direction.class);
+        if (skipSide != null)
+            notifiedSides.remove(skipSide);
+        return onNeighborNotify(level, pos, level.getBlockState(pos), notifiedSides, false).isCanceled();
+    }
+
     public static NeighborNotifyEvent onNeighborNotify(Level level, BlockPos pos, BlockState state, EnumSet<Direction> notifiedSides, boolean forceRedstoneUpdate)
     {
         NeighborNotifyEvent event = new NeighborNotifyEvent(level, pos, state, notifiedSides, forceRedstoneUpdate);
@@ -466,7 +487,8 @@ public class ForgeEventFactory
     public static PlayLevelSoundEvent.AtEntity onPlaySoundAtEntity(Entity entity, Holder<SoundEvent> name, SoundSource category, float volume, float pitch)
     {
         PlayLevelSoundEvent.AtEntity event = new PlayLevelSoundEvent.AtEntity(entity, name, category, volume, pitch);
-        MinecraftForge.EVENT_BUS.post(event);
+        if (PLAY_SOUND_AT_ENTITY_LISTENERS.hasListeners())
+            MinecraftForge.EVENT_BUS.post(event);
         return event;
     }
 
@@ -474,7 +496,8 @@ public class ForgeEventFactory
     public static PlayLevelSoundEvent.AtPosition onPlaySoundAtPosition(Level level, double x, double y, double z, Holder<SoundEvent> name, SoundSource category, float volume, float pitch)
     {
         PlayLevelSoundEvent.AtPosition event = new PlayLevelSoundEvent.AtPosition(level, new Vec3(x, y, z), name, category, volume, pitch);
-        MinecraftForge.EVENT_BUS.post(event);
+        if (PLAY_SOUND_AT_POSITION_LISTENERS.hasListeners())
+            MinecraftForge.EVENT_BUS.post(event);
         return event;
     }
 
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.items;
+
+import java.util.function.Predicate;
+
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link IItemHandler} which can answer questions about all of its slots at once, usually from an index of its
+ * contents, instead of having every slot probed one by one. Meant for handlers with very many slots, like drawers or
+ * storage networks.
+ * <p>
+ * Callers should use the methods in {@link ItemHandlerHelper}, which use these methods when a handler implements them,
+ * and check every slot otherwise. The answers must not skip any slot which checking every slot would find; they only
+ * tell the caller where to look, the items are still moved with {@link #insertItem} and {@link #extractItem}.
+ */
+public interface IBulkItemHandler extends IItemHandler
+{
+    /**
+     * Finds the first slot, starting at {@code startSlot}, into which at least part of the stack can be inserted.
+     *
+     * @param stack     ItemStack to insert. Must not be modified.
+     * @param startSlot First slot to check
+     * @return The slot, or -1 if no slot from {@code startSlot} on can accept the stack
+     */
+    int findInsertSlot(@NotNull ItemStack stack, int startSlot);
+
+    /**
+     * Finds the first slot, starting at {@code startSlot}, which holds items matching the filter. Slots which never
+     * allow extracting may be skipped, but callers still have to check what {@link #extractItem} returns.
+     *
+     * @param filter    Tested with the items in the slot. Must not modify them.
+     * @param startSlot First slot to check
+     * @return The slot, or -1 if no slot from {@code startSlot} on holds matching items
+     */
+    int findExtractSlot(Predicate<ItemStack> filter, int startSlot);
+
+    /**
+     * Counts the items matching the filter in all slots.
+     *
+     * @param filter Tested with the items in each slot. Must not modify them.
+     * @return The number of matching items
+     */
+    long countItems(Predicate<ItemStack> filter);
+}
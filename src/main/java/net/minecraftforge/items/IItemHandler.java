@@ -105,4 +105,20 @@ public interface IItemHandler
      *         false if the slot can never insert the ItemStack in any situation.
      */
     boolean isItemValid(int slot, @NotNull ItemStack stack);
+
+    /**
+     * Returns a number which increases whenever the contents of this handler change, or {@code -1} if this handler
+     * doesn't keep track of its changes.
+     * <p>
+     * Callers which check the same handler over and over, like hoppers, can remember a result which only depends on
+     * the contents, like the handler being full, and reuse it for as long as the revision stays the same. A handler
+     * must only return a revision if every change to its contents, slot limits or to what it allows to be inserted or
+     * extracted increases it.
+     *
+     * @return The current revision, or -1 if changes aren't tracked.
+     */
+    default long getRevision()
+    {
+        return -1;
+    }
 }
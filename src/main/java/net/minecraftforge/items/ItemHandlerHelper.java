@@ -16,6 +16,8 @@ import net.minecraftforge.items.wrapper.PlayerMainInvWrapper;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Predicate;
+
 public class ItemHandlerHelper
 {
     @NotNull
@@ -24,6 +26,20 @@ public class ItemHandlerHelper
         if (dest == null || stack.isEmpty())
             return stack;
 
+        if (dest instanceof IBulkItemHandler bulk)
+        {
+            // Only visit the slots which can take some of the stack
+            for (int i = bulk.findInsertSlot(stack, 0); i >= 0; i = bulk.findInsertSlot(stack, i + 1))
+            {
+                stack = dest.insertItem(i, stack, simulate);
+                if (stack.isEmpty())
+                {
+                    return ItemStack.EMPTY;
+                }
+            }
+            return stack;
+        }
+
         for (int i = 0; i < dest.getSlots(); i++)
         {
             stack = dest.insertItem(i, stack, simulate);
@@ -133,6 +149,122 @@ public class ItemHandlerHelper
         return stack;
     }
 
+    /**
+     * Finds the first slot, starting at {@code startSlot}, into which at least part of the stack can be inserted.
+     * Uses the handler's own lookup if it is an {@link IBulkItemHandler}.
+     *
+     * @return The slot, or -1 if there is none
+     */
+    public static int findInsertSlot(IItemHandler inventory, @NotNull ItemStack stack, int startSlot)
+    {
+        if (stack.isEmpty())
+            return -1;
+        if (inventory instanceof IBulkItemHandler bulk)
+            return bulk.findInsertSlot(stack, startSlot);
+
+        for (int i = Math.max(startSlot, 0); i < inventory.getSlots(); i++)
+        {
+            if (inventory.insertItem(i, stack, true).getCount() < stack.getCount())
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first slot, starting at {@code startSlot}, which holds items matching the filter.
+     * Uses the handler's own lookup if it is an {@link IBulkItemHandler}.
+     * The slot may still not allow extracting, so check what {@link IItemHandler#extractItem} returns.
+     *
+     * @return The slot, or -1 if there is none
+     */
+    public static int findExtractSlot(IItemHandler inventory, Predicate<ItemStack> filter, int startSlot)
+    {
+        if (inventory instanceof IBulkItemHandler bulk)
+            return bulk.findExtractSlot(filter, startSlot);
+
+        for (int i = Math.max(startSlot, 0); i < inventory.getSlots(); i++)
+        {
+            ItemStack stack = inventory.getStackInSlot(i);
+            if (!stack.isEmpty() && filter.test(stack))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the items matching the filter in the inventory.
+     * Uses the handler's own count if it is an {@link IBulkItemHandler}.
+     */
+    public static long countItems(IItemHandler inventory, Predicate<ItemStack> filter)
+    {
+        if (inventory instanceof IBulkItemHandler bulk)
+            return bulk.countItems(filter);
+
+        long count = 0;
+        for (int i = 0; i < inventory.getSlots(); i++)
+        {
+            ItemStack stack = inventory.getStackInSlot(i);
+            if (!stack.isEmpty() && filter.test(stack))
+                count += stack.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * Moves up to {@code amount} items matching the filter from one inventory to another, only visiting the slots
+     * which have matching items or room for them.
+     * <p>
+     * Items are only taken out of the source once the destination simulated taking them. If a handler doesn't do what
+     * it simulated, the items the destination refused are put back into the source. Whatever the source won't take
+     * back either is returned as {@link MoveResult#leftover()}, and the caller has to take care of it, for example by
+     * dropping it into the world.
+     */
+    public static MoveResult moveItems(IItemHandler from, IItemHandler to, Predicate<ItemStack> filter, int amount)
+    {
+        int moved = 0;
+        int fromSlot = findExtractSlot(from, filter, 0);
+        while (moved < amount && fromSlot >= 0)
+        {
+            ItemStack extracted = from.extractItem(fromSlot, amount - moved, true);
+            int toSlot = findInsertSlot(to, extracted, 0);
+            if (toSlot < 0)
+            {
+                // Nothing in this slot fits, try the next one
+                fromSlot = findExtractSlot(from, filter, fromSlot + 1);
+                continue;
+            }
+
+            int accepted = extracted.getCount() - to.insertItem(toSlot, extracted, true).getCount();
+            ItemStack stack = from.extractItem(fromSlot, accepted, false);
+            ItemStack remainder = to.insertItem(toSlot, stack, false);
+            moved += stack.getCount() - remainder.getCount();
+            if (!remainder.isEmpty())
+            {
+                // The destination didn't take what it simulated, so put the rest back
+                ItemStack leftover = insertItem(from, from.insertItem(fromSlot, remainder, false), false);
+                if (!leftover.isEmpty())
+                    return new MoveResult(moved, leftover);
+            }
+            if (stack.isEmpty() || !remainder.isEmpty())
+            {
+                // One of the handlers didn't do what it simulated, don't retry the same slot
+                fromSlot = findExtractSlot(from, filter, fromSlot + 1);
+            }
+        }
+        return new MoveResult(moved, ItemStack.EMPTY);
+    }
+
+    /**
+     * The result of {@link #moveItems}.
+     *
+     * @param moved    The number of items moved
+     * @param leftover Items taken out of the source which neither inventory would take. Empty unless a handler didn't
+     *                 do what it simulated.
+     */
+    public record MoveResult(int moved, @NotNull ItemStack leftover)
+    {
+    }
+
     /** giveItemToPlayer without preferred slot */
     public static void giveItemToPlayer(Player player, @NotNull ItemStack stack) {
         giveItemToPlayer(player, stack, -1);
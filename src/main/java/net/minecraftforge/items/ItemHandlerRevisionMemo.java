@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.items;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Remembers the {@linkplain IItemHandler#getRevision() revision} at which a check on the contents of an item handler
+ * failed, like looking for room or for something to extract, so that code which repeats the check every few ticks can
+ * skip it until the handler changes.
+ * <p>
+ * Handlers which don't track their revision are never skipped.
+ */
+public final class ItemHandlerRevisionMemo
+{
+    @Nullable
+    private IItemHandler handler;
+    private long revision = -1;
+
+    /**
+     * @return whether the check failed for this handler before, and the handler hasn't changed since
+     */
+    public boolean isUnchanged(IItemHandler handler)
+    {
+        return this.handler == handler && this.revision >= 0 && this.revision == handler.getRevision();
+    }
+
+    /**
+     * Remembers that the check failed for the handler at its current revision.
+     */
+    public void remember(IItemHandler handler)
+    {
+        long revision = handler.getRevision();
+        this.handler = revision < 0 ? null : handler;
+        this.revision = revision;
+    }
+
+    public void clear()
+    {
+        this.handler = null;
+        this.revision = -1;
+    }
+}
@@ -16,6 +16,7 @@ import org.jetbrains.annotations.NotNull;
 public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, INBTSerializable<CompoundTag>
 {
     protected NonNullList<ItemStack> stacks;
+    private long revision;
 
     public ItemStackHandler()
     {
@@ -35,6 +36,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
     public void setSize(int size)
     {
         stacks = NonNullList.withSize(size, ItemStack.EMPTY);
+        incrementRevision();
     }
 
     @Override
@@ -42,6 +44,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
     {
         validateSlotIndex(slot);
         this.stacks.set(slot, stack);
+        incrementRevision();
         onContentsChanged(slot);
     }
 
@@ -98,6 +101,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
             {
                 existing.grow(reachedLimit ? limit : stack.getCount());
             }
+            incrementRevision();
             onContentsChanged(slot);
         }
 
@@ -125,6 +129,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
             if (!simulate)
             {
                 this.stacks.set(slot, ItemStack.EMPTY);
+                incrementRevision();
                 onContentsChanged(slot);
                 return existing;
             }
@@ -138,6 +143,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
             if (!simulate)
             {
                 this.stacks.set(slot, ItemHandlerHelper.copyStackWithSize(existing, existing.getCount() - toExtract));
+                incrementRevision();
                 onContentsChanged(slot);
             }
 
@@ -206,6 +212,32 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
             throw new RuntimeException("Slot " + slot + " not in valid range - [0," + stacks.size() + ")");
     }
 
+    /**
+     * Counts the changes made through this handler's methods, if {@link #tracksRevision()} is enabled.
+     */
+    @Override
+    public long getRevision()
+    {
+        return tracksRevision() ? revision : -1;
+    }
+
+    /**
+     * Whether this handler reports its {@link #getRevision() revision}, which lets callers skip it while it doesn't change.
+     * <p>
+     * Only enabled for plain ItemStackHandlers, since subclasses often make their slot limits or what can be inserted
+     * or extracted depend on other state. Subclasses can enable it by overriding this, as long as they call
+     * {@link #incrementRevision()} whenever {@link #stacks} or those rules change outside of this handler's methods.
+     */
+    protected boolean tracksRevision()
+    {
+        return getClass() == ItemStackHandler.class;
+    }
+
+    protected void incrementRevision()
+    {
+        revision++;
+    }
+
     protected void onLoad()
     {
 
@@ -111,6 +111,15 @@ public class SlotItemHandler extends Slot
         return this.getItemHandler().extractItem(index, amount, false);
     }
 
+    @Override
+    public void setChanged()
+    {
+        // Menus grow and shrink the stack of a slot in place, which the handler can't see by itself
+        if (this.getItemHandler() instanceof ItemStackHandler handler)
+            handler.incrementRevision();
+        super.setChanged();
+    }
+
     public IItemHandler getItemHandler()
     {
         return itemHandler;
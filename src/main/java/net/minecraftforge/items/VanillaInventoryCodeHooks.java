@@ -12,6 +12,7 @@ import net.minecraft.world.level.block.entity.Hopper;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.DispenserBlockEntity;
 import net.minecraft.world.level.block.entity.HopperBlockEntity;
+import net.minecraftforge.common.capabilities.BlockCapabilityCache;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraft.core.Direction;
 import net.minecraft.core.BlockPos;
@@ -24,9 +25,12 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
+import java.util.function.Predicate;
 
 public class VanillaInventoryCodeHooks
 {
+    private static final Predicate<ItemStack> ANY_ITEM = stack -> true;
+
     /**
      * Copied from TileEntityHopper#captureDroppedItems and added capability support
      * @return Null if we did nothing {no IItemHandler}, True if we moved an item, False if we moved no items
@@ -34,38 +38,59 @@ public class VanillaInventoryCodeHooks
     @Nullable
     public static Boolean extractHook(Level level, Hopper dest)
     {
-        return getItemHandler(level, dest, Direction.UP)
-                .map(itemHandlerResult -> {
-                    IItemHandler handler = itemHandlerResult.getKey();
+        // Hopper block entities keep the handler they extract from, minecarts move so they look it up every time
+        IItemHandler source;
+        ItemHandlerRevisionMemo memo = null;
+        if (dest instanceof HopperBlockEntity hopper)
+        {
+            source = hopper.getItemHandlerCache(Direction.UP).getCapability();
+            memo = hopper.getRevisionMemo(Direction.UP);
+        }
+        else
+        {
+            source = getItemHandler(level, dest, Direction.UP).map(Pair::getKey).orElse(null);
+        }
+        if (source == null)
+        {
+            if (memo != null)
+                memo.clear();
+            return null;
+        }
 
-                    for (int i = 0; i < handler.getSlots(); i++)
+        // Nothing could be extracted last time, and the source hasn't changed since
+        if (memo != null && memo.isUnchanged(source))
+            return false;
+
+        boolean extractable = false;
+        for (int i = ItemHandlerHelper.findExtractSlot(source, ANY_ITEM, 0); i >= 0; i = ItemHandlerHelper.findExtractSlot(source, ANY_ITEM, i + 1))
+        {
+            ItemStack extractItem = source.extractItem(i, 1, true);
+            if (!extractItem.isEmpty())
+            {
+                extractable = true;
+                for (int j = 0; j < dest.getContainerSize(); j++)
+                {
+                    ItemStack destStack = dest.getItem(j);
+                    if (dest.canPlaceItem(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getMaxStackSize() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack)))
                     {
-                        ItemStack extractItem = handler.extractItem(i, 1, true);
-                        if (!extractItem.isEmpty())
+                        extractItem = source.extractItem(i, 1, false);
+                        if (destStack.isEmpty())
+                            dest.setItem(j, extractItem);
+                        else
                         {
-                            for (int j = 0; j < dest.getContainerSize(); j++)
-                            {
-                                ItemStack destStack = dest.getItem(j);
-                                if (dest.canPlaceItem(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getMaxStackSize() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack)))
-                                {
-                                    extractItem = handler.extractItem(i, 1, false);
-                                    if (destStack.isEmpty())
-                                        dest.setItem(j, extractItem);
-                                    else
-                                    {
-                                        destStack.grow(1);
-                                        dest.setItem(j, destStack);
-                                    }
-                                    dest.setChanged();
-                                    return true;
-                                }
-                            }
+                            destStack.grow(1);
+                            dest.setItem(j, destStack);
                         }
+                        dest.setChanged();
+                        return true;
                     }
+                }
+            }
+        }
 
-                    return false;
-                })
-                .orElse(null); // TODO bad null
+        if (!extractable && memo != null)
+            memo.remember(source);
+        return false;
     }
 
     /**
@@ -104,41 +129,58 @@ public class VanillaInventoryCodeHooks
     public static boolean insertHook(HopperBlockEntity hopper)
     {
         Direction hopperFacing = hopper.getBlockState().getValue(HopperBlock.FACING);
-        return getItemHandler(hopper.getLevel(), hopper, hopperFacing)
-                .map(destinationResult -> {
-                    IItemHandler itemHandler = destinationResult.getKey();
-                    Object destination = destinationResult.getValue();
-                    if (isFull(itemHandler))
-                    {
-                        return false;
-                    }
-                    else
-                    {
-                        for (int i = 0; i < hopper.getContainerSize(); ++i)
-                        {
-                            if (!hopper.getItem(i).isEmpty())
-                            {
-                                ItemStack originalSlotContents = hopper.getItem(i).copy();
-                                ItemStack insertStack = hopper.removeItem(i, 1);
-                                ItemStack remainder = putStackInInventoryAllSlots(hopper, destination, itemHandler, insertStack);
+        BlockCapabilityCache<IItemHandler> cache = hopper.getItemHandlerCache(hopperFacing);
+        ItemHandlerRevisionMemo memo = hopper.getRevisionMemo(hopperFacing);
+        IItemHandler itemHandler = cache.getCapability();
+        if (itemHandler == null)
+        {
+            memo.clear();
+            return false;
+        }
 
-                                if (remainder.isEmpty())
-                                {
-                                    return true;
-                                }
+        // The destination was full last time, and hasn't changed since
+        if (memo.isUnchanged(itemHandler))
+            return false;
 
-                                hopper.setItem(i, originalSlotContents);
-                            }
-                        }
+        Object destination = cache.getBlockEntity();
+        if (isFull(itemHandler))
+        {
+            memo.remember(itemHandler);
+            return false;
+        }
 
-                        return false;
-                    }
-                })
-                .orElse(false);
+        for (int i = 0; i < hopper.getContainerSize(); ++i)
+        {
+            if (!hopper.getItem(i).isEmpty())
+            {
+                ItemStack originalSlotContents = hopper.getItem(i).copy();
+                ItemStack insertStack = hopper.removeItem(i, 1);
+                ItemStack remainder = putStackInInventoryAllSlots(hopper, destination, itemHandler, insertStack);
+
+                if (remainder.isEmpty())
+                {
+                    return true;
+                }
+
+                hopper.setItem(i, originalSlotContents);
+            }
+        }
+
+        return false;
     }
 
     private static ItemStack putStackInInventoryAllSlots(BlockEntity source, Object destination, IItemHandler destInventory, ItemStack stack)
     {
+        if (destInventory instanceof IBulkItemHandler bulk)
+        {
+            // Only visit the slots which can take the stack
+            for (int slot = bulk.findInsertSlot(stack, 0); slot >= 0 && !stack.isEmpty(); slot = bulk.findInsertSlot(stack, slot + 1))
+            {
+                stack = insertStack(source, destination, destInventory, stack, slot);
+            }
+            return stack;
+        }
+
         for (int slot = 0; slot < destInventory.getSlots() && !stack.isEmpty(); slot++)
         {
             stack = insertStack(source, destination, destInventory, stack, slot);
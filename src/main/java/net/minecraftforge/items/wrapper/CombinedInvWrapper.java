@@ -126,4 +126,30 @@ public class CombinedInvWrapper implements IItemHandlerModifiable
         int localSlot = getSlotFromIndex(slot, index);
         return handler.isItemValid(localSlot, stack);
     }
+
+    @Override
+    public long getRevision()
+    {
+        if (!tracksRevision())
+            return -1;
+        // Revisions only ever increase, so their sum changes whenever one of them does
+        long revision = 0;
+        for (IItemHandlerModifiable handler : itemHandler)
+        {
+            long handlerRevision = handler.getRevision();
+            if (handlerRevision < 0)
+                return -1;
+            revision += handlerRevision;
+        }
+        return revision;
+    }
+
+    /**
+     * Whether the combined revision of the wrapped handlers is reported. Subclasses may change how slots are accessed
+     * without the wrapped handlers noticing, so they have to opt in by overriding this.
+     */
+    protected boolean tracksRevision()
+    {
+        return getClass() == CombinedInvWrapper.class;
+    }
 }
@@ -195,6 +195,13 @@ public class InvWrapper implements IItemHandlerModifiable
         return getInv().canPlaceItem(slot, stack);
     }
 
+    @Override
+    public long getRevision()
+    {
+        // Containers are changed directly by vanilla code, so changes can't be counted here
+        return -1;
+    }
+
     public Container getInv()
     {
         return inv;
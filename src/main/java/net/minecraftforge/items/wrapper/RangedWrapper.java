@@ -101,6 +101,21 @@ public class RangedWrapper implements IItemHandlerModifiable {
         return false;
     }
 
+    @Override
+    public long getRevision()
+    {
+        return tracksRevision() ? compose.getRevision() : -1;
+    }
+
+    /**
+     * Whether the revision of the wrapped handler is passed through. Off for subclasses, which may restrict the range
+     * further, unless they override this.
+     */
+    protected boolean tracksRevision()
+    {
+        return getClass() == RangedWrapper.class;
+    }
+
     private boolean checkSlot(int localSlot)
     {
         return localSlot + minSlot < maxSlot;
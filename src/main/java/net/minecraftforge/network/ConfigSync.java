@@ -5,36 +5,113 @@
 
 package net.minecraftforge.network;
 
+import com.google.common.hash.Hashing;
+import io.netty.buffer.Unpooled;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.fml.config.ConfigTracker;
 import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.loading.FMLPaths;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
+/**
+ * Sends the server configs to clients during login.
+ * <p>
+ * The configs are read from disk once and kept, together with a compressed bundle of all of them, until one of them is
+ * reloaded. Clients which understand bundles are sent the bundle, or just its digest if they kept the same bundle from
+ * an earlier login.
+ */
 public class ConfigSync {
+    private static final Logger LOGGER = LogManager.getLogger();
     public static final ConfigSync INSTANCE = new ConfigSync(ConfigTracker.INSTANCE);
     private final ConfigTracker tracker;
+    private final AtomicInteger generation = new AtomicInteger();
+    @Nullable
+    private volatile Bundle bundle;
 
     private ConfigSync(final ConfigTracker tracker) {
         this.tracker = tracker;
     }
 
     public List<Pair<String, HandshakeMessages.S2CConfigData>> syncConfigs(boolean isLocal) {
-        final Map<String, byte[]> configData = tracker.configSets().get(ModConfig.Type.SERVER).stream().collect(Collectors.toMap(ModConfig::getFileName, mc -> {
+        return getBundle().files();
+    }
+
+    /**
+     * @param knownDigest The digest of the bundle the client already has
+     */
+    public HandshakeMessages.S2CConfigBundle syncConfigBundle(String knownDigest) {
+        Bundle bundle = getBundle();
+        return new HandshakeMessages.S2CConfigBundle(bundle.digest(), bundle.digest().equals(knownDigest) ? null : bundle.data());
+    }
+
+    /**
+     * Drops the cached configs, so they are read from disk again for the next login. Called whenever a config is reloaded.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        bundle = null;
+    }
+
+    private Bundle getBundle() {
+        Bundle ret = bundle;
+        if (ret != null)
+            return ret;
+
+        int gen = generation.get();
+        // Sorted so that the same configs always give the same digest
+        Map<String, byte[]> configData = new TreeMap<>();
+        for (ModConfig config : tracker.configSets().get(ModConfig.Type.SERVER)) {
             try {
-                return Files.readAllBytes(mc.getFullPath());
+                configData.put(config.getFileName(), Files.readAllBytes(config.getFullPath()));
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
-        }));
-        return configData.entrySet().stream().map(e->Pair.of("Config "+e.getKey(), new HandshakeMessages.S2CConfigData(e.getKey(), e.getValue()))).collect(Collectors.toList());
+        }
+
+        List<Pair<String, HandshakeMessages.S2CConfigData>> files = new ArrayList<>();
+        FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        buffer.writeVarInt(configData.size());
+        configData.forEach((fileName, data) -> {
+            files.add(Pair.of("Config " + fileName, new HandshakeMessages.S2CConfigData(fileName, data)));
+            buffer.writeUtf(fileName);
+            buffer.writeByteArray(data);
+        });
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(compressed)) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), buffer.readableBytes());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        byte[] data = compressed.toByteArray();
+        ret = new Bundle(Hashing.sha256().hashBytes(data).toString(), data, List.copyOf(files));
+
+        // A config reloaded while we were reading it, the next login will read it again
+        if (generation.get() == gen)
+            bundle = ret;
+        return ret;
     }
 
     public void receiveSyncedConfig(final HandshakeMessages.S2CConfigData s2CConfigData, final Supplier<NetworkEvent.Context> contextSupplier) {
@@ -42,4 +119,83 @@ public class ConfigSync {
             Optional.ofNullable(tracker.fileMap().get(s2CConfigData.getFileName())).ifPresent(mc-> mc.acceptSyncedConfig(s2CConfigData.getBytes()));
         }
     }
+
+    /**
+     * @return false if the server sent the digest of a bundle we do not have
+     */
+    public boolean receiveSyncedConfigBundle(final HandshakeMessages.S2CConfigBundle bundle, final Supplier<NetworkEvent.Context> contextSupplier) {
+        byte[] data = bundle.getData();
+        if (data == null) {
+            data = readCachedBundle(bundle.getDigest());
+            if (data == null)
+                return false;
+        } else {
+            writeCachedBundle(bundle.getDigest(), data);
+        }
+
+        if (!Minecraft.getInstance().isLocalServer()) {
+            try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+                FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.wrappedBuffer(in.readAllBytes()));
+                int count = buffer.readVarInt();
+                for (int i = 0; i < count; i++) {
+                    String fileName = buffer.readUtf();
+                    byte[] fileData = buffer.readByteArray();
+                    Optional.ofNullable(tracker.fileMap().get(fileName)).ifPresent(mc -> mc.acceptSyncedConfig(fileData));
+                }
+            } catch (IOException e) {
+                LOGGER.error("Failed to read config bundle from server", e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The digest of the last bundle received from a server, or an empty string if there is none
+     */
+    public String getCachedDigest() {
+        Path file = getCacheFile();
+        try {
+            if (Files.exists(file)) {
+                byte[] data = Files.readAllBytes(file);
+                return Hashing.sha256().hashBytes(data).toString();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read cached config bundle", e);
+        }
+        return "";
+    }
+
+    @Nullable
+    private byte[] readCachedBundle(String digest) {
+        try {
+            Path file = getCacheFile();
+            if (Files.exists(file)) {
+                byte[] data = Files.readAllBytes(file);
+                if (digest.equals(Hashing.sha256().hashBytes(data).toString()))
+                    return data;
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read cached config bundle", e);
+        }
+        return null;
+    }
+
+    private void writeCachedBundle(String digest, byte[] data) {
+        Util.ioPool().execute(() -> {
+            try {
+                Path file = getCacheFile();
+                Files.createDirectories(file.getParent());
+                Files.write(file, data);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to cache config bundle {}", digest, e);
+            }
+        });
+    }
+
+    private static Path getCacheFile() {
+        return FMLPaths.GAMEDIR.get().resolve(".cache").resolve("serverconfig.bin");
+    }
+
+    private record Bundle(String digest, byte[] data, List<Pair<String, HandshakeMessages.S2CConfigData>> files) {}
 }
@@ -8,8 +8,10 @@ package net.minecraftforge.network;
 import com.google.common.collect.Multimap;
 import com.mojang.authlib.GameProfile;
 
+import io.netty.buffer.Unpooled;
 import net.minecraft.core.Registry;
 import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.handshake.ClientIntentionPacket;
 import net.minecraft.network.protocol.login.ClientboundCustomQueryPacket;
@@ -25,6 +27,8 @@ import net.minecraftforge.network.simple.SimpleChannel;
 import net.minecraftforge.registries.DataPackRegistriesHooks;
 import net.minecraftforge.registries.ForgeRegistry;
 import net.minecraftforge.registries.GameData;
+import net.minecraftforge.registries.RegistryManager;
+import net.minecraftforge.registries.RegistrySnapshotCache;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -113,7 +117,10 @@ public class HandshakeHandler
     private int packetPosition;
     private Map<ResourceLocation, ForgeRegistry.Snapshot> registrySnapshots;
     private Set<ResourceLocation> registriesToReceive;
-    private Map<ResourceLocation, String> registryHashes;
+    private boolean registriesUpToDate = true;
+    // Set on the network thread once the client has told us which registry snapshots and configs it already has
+    private volatile HandshakeMessages.C2SModListReply clientModList;
+    private boolean modListPayloadsQueued = true;
     private boolean negotiationStarted = false;
     private final List<Future<Void>> pendingFutures = new ArrayList<>();
 
@@ -128,7 +135,9 @@ public class HandshakeHandler
             this.messageList = Collections.emptyList();
             LOGGER.debug(FMLHSMARKER, "Starting new vanilla impl connection.");
         } else {
-            this.messageList = NetworkRegistry.gatherLoginPayloads(this.direction, false);
+            this.messageList = new ArrayList<>(NetworkRegistry.gatherLoginPayloads(this.direction, false));
+            // Registries and configs are queued once we know what the client already has, see tickServer
+            this.modListPayloadsQueued = this.direction != NetworkDirection.LOGIN_TO_CLIENT;
             LOGGER.debug(FMLHSMARKER, "Starting new modded impl connection. Found {} messages to dispatch.", this.messageList.size());
         }
     }
@@ -210,7 +219,7 @@ public class HandshakeHandler
             c.get().getNetworkManager().disconnect(Component.translatable("fml.menu.multiplayer.missingdatapackregistries", String.join(", ", missingDataPackRegistries)));
             return;
         }
-        NetworkConstants.handshakeChannel.reply(new HandshakeMessages.C2SModListReply(), c.get());
+        NetworkConstants.handshakeChannel.reply(new HandshakeMessages.C2SModListReply(RegistrySnapshotCache.getKnownHashes(serverModList.getRegistries()), ConfigSync.INSTANCE.getCachedDigest()), c.get());
 
         LOGGER.debug(FMLHSMARKER, "Accepted server connection");
         // Set the modded marker on the channel so we know we got packets
@@ -250,6 +259,7 @@ public class HandshakeHandler
             return;
         }
         LOGGER.debug(FMLHSMARKER, "Accepted client connection mod list");
+        this.clientModList = clientModList;
     }
 
     void handleModMismatchData(HandshakeMessages.S2CChannelMismatchData modMismatchData, Supplier<NetworkEvent.Context> c)
@@ -269,7 +279,22 @@ public class HandshakeHandler
     void handleRegistryMessage(final HandshakeMessages.S2CRegistry registryPacket, final Supplier<NetworkEvent.Context> contextSupplier){
         LOGGER.debug(FMLHSMARKER,"Received registry packet for {}", registryPacket.getRegistryName());
         this.registriesToReceive.remove(registryPacket.getRegistryName());
-        this.registrySnapshots.put(registryPacket.getRegistryName(), registryPacket.getSnapshot());
+        ForgeRegistry.Snapshot snapshot = registryPacket.getSnapshot();
+        if (registryPacket.isCached()) {
+            this.registriesUpToDate &= RegistrySnapshotCache.isCurrent(registryPacket.getRegistryName(), registryPacket.getSnapshotHash());
+            snapshot = RegistrySnapshotCache.get(registryPacket.getRegistryName(), registryPacket.getSnapshotHash());
+            if (snapshot == null) {
+                LOGGER.error(FMLHSMARKER, "Server sent the hash of a registry snapshot for {} which is not in our cache", registryPacket.getRegistryName());
+                contextSupplier.get().setPacketHandled(true);
+                this.manager.disconnect(Component.literal("Failed to synchronize registry data from server, closing connection"));
+                return;
+            }
+        } else {
+            this.registriesUpToDate = false;
+            if (snapshot != null)
+                RegistrySnapshotCache.store(registryPacket.getRegistryName(), snapshot);
+        }
+        this.registrySnapshots.put(registryPacket.getRegistryName(), snapshot);
 
         boolean continueHandshake = true;
         if (this.registriesToReceive.isEmpty()) {
@@ -285,6 +310,11 @@ public class HandshakeHandler
     }
 
     private boolean handleRegistryLoading(final Supplier<NetworkEvent.Context> contextSupplier) {
+        if (this.registriesUpToDate) {
+            // Every snapshot matched our current ids, so there is nothing to inject
+            LOGGER.debug(FMLHSMARKER, "Registries already match the server, continuing handshake.");
+            return true;
+        }
         // We use a countdown latch to suspend the impl thread pending the client thread processing the registry data
         AtomicBoolean successfulConnection = new AtomicBoolean(false);
         AtomicReference<Multimap<ResourceLocation, ResourceLocation>> registryMismatches = new AtomicReference<>();
@@ -329,6 +359,18 @@ public class HandshakeHandler
         contextSupplier.get().setPacketHandled(true);
         NetworkConstants.handshakeChannel.reply(new HandshakeMessages.C2SAcknowledge(), contextSupplier.get());
     }
+
+    void handleConfigBundle(final HandshakeMessages.S2CConfigBundle msg, final Supplier<NetworkEvent.Context> contextSupplier) {
+        LOGGER.debug(FMLHSMARKER, "Received config bundle {} from server", msg.getDigest());
+        contextSupplier.get().setPacketHandled(true);
+        if (!ConfigSync.INSTANCE.receiveSyncedConfigBundle(msg, contextSupplier)) {
+            LOGGER.error(FMLHSMARKER, "Failed to load config bundle {} from server", msg.getDigest());
+            this.manager.disconnect(Component.literal("Failed to synchronize config data from server, closing connection"));
+            return;
+        }
+        NetworkConstants.handshakeChannel.reply(new HandshakeMessages.C2SAcknowledge(), contextSupplier.get());
+    }
+
     /**
      * FML will send packets, from Server to Client, from the messages queue until the queue is drained. Each message
      * will be indexed, and placed into the "pending acknowledgement" queue.
@@ -349,6 +391,19 @@ public class HandshakeHandler
             negotiationStarted = true;
         }
 
+        if (!modListPayloadsQueued && clientModList != null) {
+            // Channels are gathered in no particular order, so sending these last is no different for other payloads
+            for (var packet : RegistryManager.generateRegistryPackets(clientModList.getRegistries()))
+                queueHandshakeMessage(packet.getLeft(), packet.getRight());
+            if (clientModList.getConfigDigest() != null) {
+                queueHandshakeMessage("Config bundle", ConfigSync.INSTANCE.syncConfigBundle(clientModList.getConfigDigest()));
+            } else {
+                for (var packet : ConfigSync.INSTANCE.syncConfigs(false))
+                    queueHandshakeMessage(packet.getLeft(), packet.getRight());
+            }
+            modListPayloadsQueued = true;
+        }
+
         if (packetPosition < messageList.size()) {
             NetworkRegistry.LoginPayload message = messageList.get(packetPosition);
 
@@ -376,7 +431,7 @@ public class HandshakeHandler
         });
 
         // we're done when sentMessages is empty
-        if (sentMessages.isEmpty() && packetPosition >= messageList.size()-1 && pendingFutures.isEmpty()) {
+        if (modListPayloadsQueued && sentMessages.isEmpty() && packetPosition >= messageList.size()-1 && pendingFutures.isEmpty()) {
             // clear ourselves - we're done!
             this.manager.channel().attr(NetworkConstants.FML_HANDSHAKE_HANDLER).set(null);
             LOGGER.debug(FMLHSMARKER, "Handshake complete!");
@@ -385,6 +440,13 @@ public class HandshakeHandler
         return false;
     }
 
+    private void queueHandshakeMessage(String context, Object message)
+    {
+        FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        NetworkConstants.handshakeChannel.encodeMessage(message, buffer);
+        messageList.add(new NetworkRegistry.LoginPayload(buffer, NetworkConstants.FML_HANDSHAKE_RESOURCE, context));
+    }
+
     /**
      * Helper method to determine if the S2C packet at the given packet position needs a response in form of a packet handled in {@link HandshakeHandler#handleIndexedMessage} for the handshake to progress.
      * @param mgr The impl manager for this connection
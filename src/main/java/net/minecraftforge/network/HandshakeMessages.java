@@ -175,19 +175,33 @@ public class HandshakeMessages
         private List<String> mods;
         private Map<ResourceLocation, String> channels;
         private Map<ResourceLocation, String> registries;
+        // Null if the client does not support config bundles
+        @Nullable
+        private String configDigest;
 
         public C2SModListReply()
+        {
+            this(Maps.newHashMap(), "");
+        }
+
+        /**
+         * @param registries   The snapshot hashes the client already has for each registry, separated by commas
+         * @param configDigest The digest of the config bundle the client already has, or an empty string
+         */
+        public C2SModListReply(Map<ResourceLocation, String> registries, String configDigest)
         {
             this.mods = ModList.get().getMods().stream().map(IModInfo::getModId).collect(Collectors.toList());
             this.channels = NetworkRegistry.buildChannelVersions();
-            this.registries = Maps.newHashMap(); //TODO: Fill with known hashes, which requires keeping a file cache
+            this.registries = registries;
+            this.configDigest = configDigest;
         }
 
-        private C2SModListReply(List<String> mods, Map<ResourceLocation, String> channels, Map<ResourceLocation, String> registries)
+        private C2SModListReply(List<String> mods, Map<ResourceLocation, String> channels, Map<ResourceLocation, String> registries, @Nullable String configDigest)
         {
             this.mods = mods;
             this.channels = channels;
             this.registries = registries;
+            this.configDigest = configDigest;
         }
 
         public static C2SModListReply decode(FriendlyByteBuf input)
@@ -207,7 +221,10 @@ public class HandshakeMessages
             for (int x = 0; x < len; x++)
                 registries.put(input.readResourceLocation(), input.readUtf(0x100));
 
-            return new C2SModListReply(mods, channels, registries);
+            // Added after the other fields so that older clients are still understood
+            String configDigest = input.isReadable() ? input.readUtf(0x100) : null;
+
+            return new C2SModListReply(mods, channels, registries, configDigest);
         }
 
         public void encode(FriendlyByteBuf output)
@@ -226,6 +243,9 @@ public class HandshakeMessages
                 output.writeResourceLocation(k);
                 output.writeUtf(v, 0x100);
             });
+
+            if (configDigest != null)
+                output.writeUtf(configDigest, 0x100);
         }
 
         public List<String> getModList() {
@@ -239,6 +259,15 @@ public class HandshakeMessages
         public Map<ResourceLocation, String> getChannels() {
             return this.channels;
         }
+
+        /**
+         * @return The digest of the config bundle the client already has, an empty string if it has none, or null if the
+         *         client only understands {@link S2CConfigData}
+         */
+        @Nullable
+        public String getConfigDigest() {
+            return this.configDigest;
+        }
     }
 
     public static class C2SAcknowledge extends LoginIndexedMessage {
@@ -252,26 +281,50 @@ public class HandshakeMessages
     }
 
     public static class S2CRegistry extends LoginIndexedMessage {
+        private static final int NO_SNAPSHOT = 0;
+        private static final int SNAPSHOT = 1;
+        // Only sent to clients which listed the hash in their C2SModListReply
+        private static final int CACHED_SNAPSHOT = 2;
+
         private ResourceLocation registryName;
         @Nullable
         private ForgeRegistry.Snapshot snapshot;
+        @Nullable
+        private String snapshotHash;
 
         public S2CRegistry(final ResourceLocation name, @Nullable ForgeRegistry.Snapshot snapshot) {
             this.registryName = name;
             this.snapshot = snapshot;
         }
 
+        /**
+         * Creates a packet which refers to a snapshot the client already has by its {@linkplain ForgeRegistry.Snapshot#getHash() hash}.
+         */
+        public static S2CRegistry cached(final ResourceLocation name, final String snapshotHash) {
+            S2CRegistry packet = new S2CRegistry(name, null);
+            packet.snapshotHash = snapshotHash;
+            return packet;
+        }
+
         void encode(final FriendlyByteBuf buffer) {
             buffer.writeResourceLocation(registryName);
-            buffer.writeBoolean(hasSnapshot());
-            if (hasSnapshot())
-                buffer.writeBytes(snapshot.getPacketData());
+            if (isCached()) {
+                buffer.writeByte(CACHED_SNAPSHOT);
+                buffer.writeUtf(snapshotHash, 0x100);
+            } else {
+                buffer.writeByte(hasSnapshot() ? SNAPSHOT : NO_SNAPSHOT);
+                if (hasSnapshot())
+                    buffer.writeBytes(snapshot.getPacketData());
+            }
         }
 
         public static S2CRegistry decode(final FriendlyByteBuf buffer) {
             ResourceLocation name = buffer.readResourceLocation();
+            int type = buffer.readByte();
+            if (type == CACHED_SNAPSHOT)
+                return cached(name, buffer.readUtf(0x100));
             ForgeRegistry.Snapshot snapshot = null;
-            if (buffer.readBoolean())
+            if (type == SNAPSHOT)
                 snapshot = ForgeRegistry.Snapshot.read(buffer);
             return new S2CRegistry(name, snapshot);
         }
@@ -288,6 +341,18 @@ public class HandshakeMessages
         public ForgeRegistry.Snapshot getSnapshot() {
             return snapshot;
         }
+
+        /**
+         * @return true if the snapshot was not sent, and has to be looked up from the client's cache by {@link #getSnapshotHash()}
+         */
+        public boolean isCached() {
+            return snapshotHash != null;
+        }
+
+        @Nullable
+        public String getSnapshotHash() {
+            return snapshotHash;
+        }
     }
 
 
@@ -318,6 +383,45 @@ public class HandshakeMessages
         }
     }
 
+    /**
+     * All server configs in one compressed payload. If the client already has a bundle with the same digest, only the
+     * digest is sent.
+     */
+    public static class S2CConfigBundle extends LoginIndexedMessage {
+        private final String digest;
+        @Nullable
+        private final byte[] data;
+
+        public S2CConfigBundle(final String digest, @Nullable final byte[] data) {
+            this.digest = digest;
+            this.data = data;
+        }
+
+        void encode(final FriendlyByteBuf buffer) {
+            buffer.writeUtf(this.digest, 0x100);
+            buffer.writeBoolean(this.data != null);
+            if (this.data != null)
+                buffer.writeByteArray(this.data);
+        }
+
+        public static S2CConfigBundle decode(final FriendlyByteBuf buffer) {
+            String digest = buffer.readUtf(0x100);
+            return new S2CConfigBundle(digest, buffer.readBoolean() ? buffer.readByteArray() : null);
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        /**
+         * @return The compressed bundle, or null if the client should use the one it has with the same {@link #getDigest() digest}
+         */
+        @Nullable
+        public byte[] getData() {
+            return data;
+        }
+    }
+
     /**
      * Notifies the client of a channel mismatch on the server, so a {@link net.minecraftforge.client.gui.ModMismatchDisconnectedScreen} is used to notify the user of the disconnection.
      * This packet also sends the data of a channel mismatch (currently, the ids and versions of the mismatched channels) to the client for it to display the correct information in said screen.
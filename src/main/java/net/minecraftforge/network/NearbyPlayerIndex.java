@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * Indexes the players of a level by the chunk they are in, so that {@link PacketDistributor#NEAR} only has to look at
+ * players close to the target point instead of every player on the server.
+ * <p>
+ * Players are added and removed with the level's own player list, and moved whenever they enter a new section.
+ */
+@ApiStatus.Internal
+public class NearbyPlayerIndex
+{
+    private final Long2ObjectMap<List<ServerPlayer>> chunks = new Long2ObjectOpenHashMap<>();
+    private final Object2LongMap<ServerPlayer> players = new Object2LongOpenHashMap<>();
+
+    public void add(ServerPlayer player)
+    {
+        remove(player);
+        long chunk = ChunkPos.asLong(player.blockPosition());
+        players.put(player, chunk);
+        chunks.computeIfAbsent(chunk, k -> new ArrayList<>()).add(player);
+    }
+
+    public void remove(ServerPlayer player)
+    {
+        if (players.containsKey(player))
+            removeFromChunk(player, players.removeLong(player));
+    }
+
+    /**
+     * Called when a player enters a new section.
+     */
+    public void move(ServerPlayer player, long newSection)
+    {
+        if (!players.containsKey(player))
+            return;
+        long chunk = ChunkPos.asLong(SectionPos.x(newSection), SectionPos.z(newSection));
+        long oldChunk = players.put(player, chunk);
+        if (oldChunk != chunk)
+        {
+            removeFromChunk(player, oldChunk);
+            chunks.computeIfAbsent(chunk, k -> new ArrayList<>()).add(player);
+        }
+    }
+
+    /**
+     * Calls the action for every player closer than the radius to the point, with the same check as
+     * {@link net.minecraft.server.players.PlayerList#broadcast}.
+     */
+    public void forEachPlayerNear(@Nullable ServerPlayer excluded, double x, double y, double z, double radius, Consumer<ServerPlayer> action)
+    {
+        if (players.isEmpty())
+            return;
+
+        int minX = SectionPos.posToSectionCoord(x - radius);
+        int minZ = SectionPos.posToSectionCoord(z - radius);
+        int maxX = SectionPos.posToSectionCoord(x + radius);
+        int maxZ = SectionPos.posToSectionCoord(z + radius);
+
+        long count = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (count >= chunks.size())
+        {
+            // Checking every player is cheaper than probing every chunk in range.
+            for (ServerPlayer player : players.keySet())
+                acceptIfNear(player, excluded, x, y, z, radius, action);
+            return;
+        }
+
+        for (int cx = minX; cx <= maxX; cx++)
+        {
+            for (int cz = minZ; cz <= maxZ; cz++)
+            {
+                List<ServerPlayer> chunk = chunks.get(ChunkPos.asLong(cx, cz));
+                if (chunk == null)
+                    continue;
+                for (int i = 0; i < chunk.size(); i++)
+                    acceptIfNear(chunk.get(i), excluded, x, y, z, radius, action);
+            }
+        }
+    }
+
+    private static void acceptIfNear(ServerPlayer player, @Nullable ServerPlayer excluded, double x, double y, double z, double radius, Consumer<ServerPlayer> action)
+    {
+        if (player == excluded)
+            return;
+        double dx = x - player.getX();
+        double dy = y - player.getY();
+        double dz = z - player.getZ();
+        if (dx * dx + dy * dy + dz * dz < radius * radius)
+            action.accept(player);
+    }
+
+    private void removeFromChunk(ServerPlayer player, long chunk)
+    {
+        List<ServerPlayer> list = chunks.get(chunk);
+        if (list == null)
+            return;
+        list.remove(player);
+        if (list.isEmpty())
+            chunks.remove(chunk);
+    }
+}
@@ -7,7 +7,6 @@ package net.minecraftforge.network;
 
 import net.minecraftforge.network.event.EventNetworkChannel;
 import net.minecraftforge.network.simple.SimpleChannel;
-import net.minecraftforge.registries.RegistryManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -57,7 +56,6 @@ class NetworkInitialization {
                 loginIndex(HandshakeMessages.LoginIndexedMessage::getLoginIndex, HandshakeMessages.LoginIndexedMessage::setLoginIndex).
                 decoder(HandshakeMessages.S2CRegistry::decode).
                 encoder(HandshakeMessages.S2CRegistry::encode).
-                buildLoginPacketList(RegistryManager::generateRegistryPackets). //TODO: Make this non-static, and store a cache on the client.
                 consumerNetworkThread(HandshakeHandler.biConsumerFor(HandshakeHandler::handleRegistryMessage)).
                 add();
 
@@ -65,10 +63,16 @@ class NetworkInitialization {
                 loginIndex(HandshakeMessages.LoginIndexedMessage::getLoginIndex, HandshakeMessages.LoginIndexedMessage::setLoginIndex).
                 decoder(HandshakeMessages.S2CConfigData::decode).
                 encoder(HandshakeMessages.S2CConfigData::encode).
-                buildLoginPacketList(ConfigSync.INSTANCE::syncConfigs).
                 consumerNetworkThread(HandshakeHandler.biConsumerFor(HandshakeHandler::handleConfigSync)).
                 add();
 
+        handshakeChannel.messageBuilder(HandshakeMessages.S2CConfigBundle.class, 7, NetworkDirection.LOGIN_TO_CLIENT).
+                loginIndex(HandshakeMessages.LoginIndexedMessage::getLoginIndex, HandshakeMessages.LoginIndexedMessage::setLoginIndex).
+                decoder(HandshakeMessages.S2CConfigBundle::decode).
+                encoder(HandshakeMessages.S2CConfigBundle::encode).
+                consumerNetworkThread(HandshakeHandler.biConsumerFor(HandshakeHandler::handleConfigBundle)).
+                add();
+
         handshakeChannel.messageBuilder(HandshakeMessages.S2CChannelMismatchData.class, 6, NetworkDirection.LOGIN_TO_CLIENT).
                 loginIndex(HandshakeMessages.LoginIndexedMessage::getLoginIndex, HandshakeMessages.LoginIndexedMessage::setLoginIndex).
                 decoder(HandshakeMessages.S2CChannelMismatchData::decode).
@@ -15,9 +15,11 @@ import net.minecraft.resources.ResourceKey;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraftforge.network.simple.SimpleChannel;
 import net.minecraftforge.server.ServerLifecycleHooks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -85,6 +87,13 @@ public class PacketDistributor<T> {
      * {@link #with(Supplier)} List of NetworkManager
      */
     public static final PacketDistributor<List<Connection>> NMLIST = new PacketDistributor<>(PacketDistributor::networkManagerList, NetworkDirection.PLAY_TO_CLIENT);
+    /**
+     * Send to every player in the Collection in the Supplier. The message is only encoded once, no matter how many
+     * players it is sent to.
+     * <br/>
+     * {@link #with(Supplier)} Collection of ServerPlayer
+     */
+    public static final PacketDistributor<Collection<? extends ServerPlayer>> PLAYERS = new PacketDistributor<>(PacketDistributor::playerCollection, NetworkDirection.PLAY_TO_CLIENT);
 
     public static final class TargetPoint {
 
@@ -217,7 +226,9 @@ public class PacketDistributor<T> {
     private Consumer<Packet<?>> playerListPointConsumer(final Supplier<TargetPoint> targetPointSupplier) {
         return p -> {
             final TargetPoint tp = targetPointSupplier.get();
-            getServer().getPlayerList().broadcast(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim, p);
+            final ServerLevel level = getServer().getLevel(tp.dim);
+            if (level != null)
+                level.getNearbyPlayerIndex().forEachPlayerNear(tp.excluded, tp.x, tp.y, tp.z, tp.r2, player -> player.connection.send(p));
         };
     }
 
@@ -238,7 +249,15 @@ public class PacketDistributor<T> {
     private Consumer<Packet<?>> trackingChunk(final Supplier<LevelChunk> chunkPosSupplier) {
         return p -> {
             final LevelChunk chunk = chunkPosSupplier.get();
-            ((ServerChunkCache)chunk.getLevel().getChunkSource()).chunkMap.getPlayers(chunk.getPos(), false).forEach(e -> e.connection.send(p));
+            for (ServerPlayer player : ((ServerChunkCache)chunk.getLevel().getChunkSource()).chunkMap.getPlayers(chunk.getPos(), false))
+                player.connection.send(p);
+        };
+    }
+
+    private Consumer<Packet<?>> playerCollection(final Supplier<Collection<? extends ServerPlayer>> playersSupplier) {
+        return p -> {
+            for (ServerPlayer player : playersSupplier.get())
+                player.connection.connection.send(p);
         };
     }
 
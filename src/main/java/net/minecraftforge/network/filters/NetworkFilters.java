@@ -40,6 +40,12 @@ public class NetworkFilters
                 LOGGER.debug("Injected {} into {}", filter, manager);
             }
         });
+
+        if (PayloadBundler.isNecessary(manager))
+        {
+            pipeline.addBefore("packet_handler", "forge:payload_bundler", new PayloadBundler());
+            LOGGER.debug("Injected payload bundler into {}", manager);
+        }
     }
 
     private NetworkFilters()
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.network.filters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.PromiseNotifier;
+import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.network.ICustomPacket;
+import net.minecraftforge.network.NetworkDirection;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Packs consecutive play payloads of channels which {@linkplain net.minecraftforge.network.simple.SimpleChannel#enableBundling() enabled bundling}
+ * into a single custom payload packet, which is written at the end of the tick.
+ * <p>
+ * A bundled payload starts with the discriminator {@link #BUNDLE_DISCRIMINATOR}, followed by each of the original payloads
+ * prefixed with its length. Any other packet written to the connection first writes the pending bundle, so packets still
+ * arrive in the order they were sent.
+ */
+@ApiStatus.Internal
+public class PayloadBundler extends ChannelDuplexHandler
+{
+    public static final short BUNDLE_DISCRIMINATOR = 0xFF;
+    // Larger payloads are sent on their own, and a bundle is written early once it would grow past the frame limit
+    private static final int MAX_BUNDLED_PAYLOAD = 8 * 1024;
+    private static final int MAX_FRAME = 32 * 1024;
+
+    private static final Set<ResourceLocation> CHANNELS = ConcurrentHashMap.newKeySet();
+    private static final Set<PayloadBundler> PENDING = ConcurrentHashMap.newKeySet();
+
+    // Only accessed on the connection's event loop
+    private final List<ICustomPacket<?>> packets = new ArrayList<>();
+    // The payload of each packet, which the packet copies every time it is asked for it
+    private final List<FriendlyByteBuf> payloads = new ArrayList<>();
+    private final List<ChannelPromise> promises = new ArrayList<>();
+    private int size;
+    @Nullable
+    private ChannelHandlerContext ctx;
+
+    public static void enable(ResourceLocation channel)
+    {
+        CHANNELS.add(channel);
+    }
+
+    static boolean isNecessary(Connection manager)
+    {
+        return !manager.isMemoryConnection() && !CHANNELS.isEmpty();
+    }
+
+    /**
+     * Writes the pending bundles of every connection. Called at the end of each client and server tick.
+     */
+    public static void flushAll()
+    {
+        if (PENDING.isEmpty())
+            return;
+        for (PayloadBundler bundler : PENDING)
+        {
+            PENDING.remove(bundler);
+            ChannelHandlerContext ctx = bundler.ctx;
+            if (ctx != null)
+                ctx.executor().execute(() -> {
+                    bundler.writePending(ctx);
+                    ctx.flush();
+                });
+        }
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx)
+    {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx)
+    {
+        writePending(ctx);
+        ctx.flush();
+        PENDING.remove(this);
+        this.ctx = null;
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception
+    {
+        Exception closed = new IllegalStateException("Connection closed before the bundle was written");
+        promises.forEach(p -> p.tryFailure(closed));
+        packets.clear();
+        payloads.clear();
+        promises.clear();
+        size = 0;
+        PENDING.remove(this);
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception
+    {
+        if (msg instanceof ICustomPacket<?> packet)
+        {
+            FriendlyByteBuf data = getBundlePayload(packet);
+            if (data != null)
+            {
+                int length = data.readableBytes();
+                if (!packets.isEmpty() && (!packets.get(0).getName().equals(packet.getName()) || size + length + 5 > MAX_FRAME))
+                    writePending(ctx);
+                if (packets.isEmpty())
+                    PENDING.add(this);
+                packets.add(packet);
+                payloads.add(data);
+                if (!promise.isVoid())
+                    promises.add(promise);
+                size += length + 5;
+                return;
+            }
+        }
+
+        writePending(ctx);
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception
+    {
+        // Held back until the end of the tick, or until some other packet is written
+        if (packets.isEmpty())
+            ctx.flush();
+    }
+
+    /**
+     * @return The payload of the packet if it can be bundled, or null otherwise
+     */
+    @Nullable
+    private static FriendlyByteBuf getBundlePayload(ICustomPacket<?> packet)
+    {
+        NetworkDirection direction = packet.getDirection();
+        if (direction != NetworkDirection.PLAY_TO_CLIENT && direction != NetworkDirection.PLAY_TO_SERVER)
+            return null;
+        // Checked before getting the payload, which copies it
+        if (!CHANNELS.contains(packet.getName()))
+            return null;
+        FriendlyByteBuf data = packet.getInternalData();
+        return data != null && data.isReadable() && data.readableBytes() <= MAX_BUNDLED_PAYLOAD ? data : null;
+    }
+
+    private void writePending(ChannelHandlerContext ctx)
+    {
+        if (packets.isEmpty())
+            return;
+
+        ICustomPacket<?> first = packets.get(0);
+        Object frame;
+        if (packets.size() == 1)
+        {
+            frame = first.getThis();
+        }
+        else
+        {
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(size + 1));
+            buf.writeByte(BUNDLE_DISCRIMINATOR);
+            for (FriendlyByteBuf data : payloads)
+            {
+                buf.writeVarInt(data.readableBytes());
+                buf.writeBytes(data, data.readerIndex(), data.readableBytes());
+            }
+            frame = first.getDirection().buildPacket(Pair.of(buf, Integer.MIN_VALUE), first.getName()).getThis();
+        }
+
+        if (promises.isEmpty())
+            ctx.write(frame, ctx.voidPromise());
+        else
+            ctx.write(frame).addListener(new PromiseNotifier<Void, ChannelFuture>(promises.toArray(new ChannelPromise[0])));
+        packets.clear();
+        payloads.clear();
+        promises.clear();
+        size = 0;
+    }
+}
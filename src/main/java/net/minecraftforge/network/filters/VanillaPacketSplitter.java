@@ -7,8 +7,14 @@ package net.minecraftforge.network.filters;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import net.minecraft.network.*;
@@ -43,6 +49,13 @@ public class VanillaPacketSplitter
     private static final byte STATE_FIRST = 1;
     private static final byte STATE_LAST = 2;
 
+    private static final ByteBuf[] NO_PARTS = new ByteBuf[0];
+    // Weak keys are compared by identity, and let go of the parts once the packet is no longer referenced
+    private static final Cache<Packet<?>, ByteBuf[]> ENCODED_PARTS = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(64)
+            .build();
+
     public static void register()
     {
         Predicate<String> versionCheck = NetworkRegistry.acceptMissingOr(VERSION);
@@ -53,59 +66,87 @@ public class VanillaPacketSplitter
     /**
      * Append the given packet to the given list. If the packet needs to be split, multiple packets will be appened.
      * Otherwise only the packet itself.
+     * <p>
+     * The same packet instance is often sent to every player, for example after a reload. The encoded parts of a packet
+     * are therefore cached for as long as the packet instance is alive, so it only has to be encoded once.
      */
     public static void appendPackets(ConnectionProtocol protocol, PacketFlow direction, Packet<?> packet, List<? super Packet<?>> out)
     {
         if (heuristicIsDefinitelySmallEnough(packet))
+        {
+            out.add(packet);
+            return;
+        }
+
+        ByteBuf[] parts;
+        try
+        {
+            parts = ENCODED_PARTS.get(packet, () -> encodeParts(protocol, direction, packet));
+        }
+        catch (ExecutionException | UncheckedExecutionException e)
+        {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+
+        if (parts.length == 0)
         {
             out.add(packet);
         }
         else
         {
-            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
-            packet.write(buf);
-            if (buf.readableBytes() <= PROTOCOL_MAX)
+            // Duplicates share the cached contents, but have their own indices, so every connection can read them
+            for (ByteBuf part : parts)
+                out.add(new ClientboundCustomPayloadPacket(CHANNEL, new FriendlyByteBuf(part.duplicate())));
+        }
+    }
+
+    /**
+     * Encodes the given packet and splits it into the payloads of the custom payload packets it should be sent as.
+     *
+     * @return The payloads, or an empty array if the packet is small enough to be sent as is
+     */
+    private static ByteBuf[] encodeParts(ConnectionProtocol protocol, PacketFlow direction, Packet<?> packet)
+    {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        packet.write(buf);
+        if (buf.readableBytes() <= PROTOCOL_MAX)
+        {
+            buf.release();
+            return NO_PARTS;
+        }
+        int parts = (int)Math.ceil(((double)buf.readableBytes()) / PART_SIZE);
+        if (parts == 1)
+        {
+            buf.release();
+            return NO_PARTS;
+        }
+
+        ByteBuf[] result = new ByteBuf[parts];
+        for (int part = 0; part < parts; part++)
+        {
+            ByteBuf partPrefix;
+            if (part == 0)
             {
-                buf.release();
-                out.add(packet);
+                partPrefix = Unpooled.buffer(5);
+                partPrefix.writeByte(STATE_FIRST);
+                new FriendlyByteBuf(partPrefix).writeVarInt(protocol.getPacketId(direction, packet));
             }
             else
             {
-                int parts = (int)Math.ceil(((double)buf.readableBytes()) / PART_SIZE);
-                if (parts == 1)
-                {
-                    buf.release();
-                    out.add(packet);
-                }
-                else
-                {
-                    for (int part = 0; part < parts; part++)
-                    {
-                        ByteBuf partPrefix;
-                        if (part == 0)
-                        {
-                            partPrefix = Unpooled.buffer(5);
-                            partPrefix.writeByte(STATE_FIRST);
-                            new FriendlyByteBuf(partPrefix).writeVarInt(protocol.getPacketId(direction, packet));
-                        }
-                        else
-                        {
-                            partPrefix = Unpooled.buffer(1);
-                            partPrefix.writeByte(part == parts - 1 ? STATE_LAST : 0);
-                        }
-                        int partSize = Math.min(PART_SIZE, buf.readableBytes());
-                        ByteBuf partBuf = Unpooled.wrappedBuffer(
-                                partPrefix,
-                                buf.retainedSlice(buf.readerIndex(), partSize)
-                        );
-                        buf.skipBytes(partSize);
-                        out.add(new ClientboundCustomPayloadPacket(CHANNEL, new FriendlyByteBuf(partBuf)));
-                    }
-                    // we retained all the slices, so we do not need this one anymore
-                    buf.release();
-                }
+                partPrefix = Unpooled.buffer(1);
+                partPrefix.writeByte(part == parts - 1 ? STATE_LAST : 0);
             }
+            int partSize = Math.min(PART_SIZE, buf.readableBytes());
+            result[part] = Unpooled.wrappedBuffer(
+                    partPrefix,
+                    buf.retainedSlice(buf.readerIndex(), partSize)
+            );
+            buf.skipBytes(partSize);
         }
+        // we retained all the slices, so we do not need this one anymore
+        buf.release();
+        return result;
     }
 
     private static boolean heuristicIsDefinitelySmallEnough(Packet<?> packet)
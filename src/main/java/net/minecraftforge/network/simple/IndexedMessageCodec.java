@@ -13,6 +13,7 @@ import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkEvent;
 import net.minecraftforge.network.NetworkHooks;
 import net.minecraftforge.network.NetworkInstance;
+import net.minecraftforge.network.filters.PayloadBundler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
@@ -31,6 +32,7 @@ public class IndexedMessageCodec
     private final Short2ObjectArrayMap<MessageHandler<?>> indicies = new Short2ObjectArrayMap<>();
     private final Object2ObjectArrayMap<Class<?>, MessageHandler<?>> types = new Object2ObjectArrayMap<>();
     private final NetworkInstance networkInstance;
+    private boolean bundling;
 
     public IndexedMessageCodec() {
         this(null);
@@ -63,6 +65,8 @@ public class IndexedMessageCodec
 
         public MessageHandler(int index, Class<MSG> messageType, BiConsumer<MSG, FriendlyByteBuf> encoder, Function<FriendlyByteBuf, MSG> decoder, BiConsumer<MSG, Supplier<NetworkEvent.Context>> messageConsumer, final Optional<NetworkDirection> networkDirection)
         {
+            if (bundling && (index & 0xff) == PayloadBundler.BUNDLE_DISCRIMINATOR)
+                throw new IllegalArgumentException("Index " + index + " is reserved on channels with bundling enabled");
             this.index = index;
             this.messageType = messageType;
             this.encoder = Optional.ofNullable(encoder);
@@ -135,6 +139,14 @@ public class IndexedMessageCodec
     }
 
     void consume(FriendlyByteBuf payload, int payloadIndex, Supplier<NetworkEvent.Context> context) {
+        consume(payload, payloadIndex, context, false);
+    }
+
+    /**
+     * @param nested whether the payload came out of a bundle. The sender never nests bundles, so the bundle
+     *               discriminator is rejected as invalid inside one instead of recursing again.
+     */
+    private void consume(FriendlyByteBuf payload, int payloadIndex, Supplier<NetworkEvent.Context> context, boolean nested) {
         if (payload == null || !payload.isReadable()) {
             LOGGER.error(SIMPLENET, "Received empty payload on channel {}", Optional.ofNullable(networkInstance).map(NetworkInstance::getChannelName).map(Objects::toString).orElse("MISSING CHANNEL"));
             if (!HandshakeHandler.packetNeedsResponse(context.get().getNetworkManager(), payloadIndex))
@@ -144,6 +156,13 @@ public class IndexedMessageCodec
             return;
         }
         short discriminator = payload.readUnsignedByte();
+        if (bundling && !nested && discriminator == PayloadBundler.BUNDLE_DISCRIMINATOR) {
+            while (payload.isReadable()) {
+                int length = payload.readVarInt();
+                consume(new FriendlyByteBuf(payload.readSlice(length)), payloadIndex, context, true);
+            }
+            return;
+        }
         final MessageHandler<?> messageHandler = indicies.get(discriminator);
         if (messageHandler == null) {
             LOGGER.error(SIMPLENET, "Received invalid discriminator byte {} on channel {}", discriminator, Optional.ofNullable(networkInstance).map(NetworkInstance::getChannelName).map(Objects::toString).orElse("MISSING CHANNEL"));
@@ -153,6 +172,15 @@ public class IndexedMessageCodec
         tryDecode(payload, context, payloadIndex, messageHandler);
     }
 
+    /**
+     * Accepts payloads bundled by {@link PayloadBundler}, which reserves the discriminator {@value PayloadBundler#BUNDLE_DISCRIMINATOR}.
+     */
+    void enableBundling() {
+        if (indicies.containsKey(PayloadBundler.BUNDLE_DISCRIMINATOR))
+            throw new IllegalStateException("Index " + PayloadBundler.BUNDLE_DISCRIMINATOR + " is already registered, it is reserved for bundles");
+        this.bundling = true;
+    }
+
     <MSG> MessageHandler<MSG> addCodecIndex(int index, Class<MSG> messageType, BiConsumer<MSG, FriendlyByteBuf> encoder, Function<FriendlyByteBuf, MSG> decoder, BiConsumer<MSG, Supplier<NetworkEvent.Context>> messageConsumer, final Optional<NetworkDirection> networkDirection) {
         return new MessageHandler<>(index, messageType, encoder, decoder, messageConsumer, networkDirection);
     }
@@ -10,10 +10,12 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.network.Connection;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkEvent;
 import net.minecraftforge.network.NetworkInstance;
 import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.network.filters.PayloadBundler;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
@@ -68,6 +70,22 @@ public class SimpleChannel
         return this.indexedCodec.build(message, target);
     }
 
+    /**
+     * Enables bundling of this channel's play messages. Messages sent to the same connection one after another are
+     * packed into a single packet, which is sent at the end of the tick or as soon as a packet of another channel is sent.
+     * This saves the overhead of a packet per message for channels which send many small messages.
+     * <p>
+     * Bundling has to be enabled on both sides, so the protocol version of the channel should change with it.
+     * Index {@value PayloadBundler#BUNDLE_DISCRIMINATOR} is reserved for bundles and can't be registered.
+     *
+     * @return this channel
+     */
+    public SimpleChannel enableBundling() {
+        this.indexedCodec.enableBundling();
+        PayloadBundler.enable(this.instance.getChannelName());
+        return this;
+    }
+
     public <MSG> IndexedMessageCodec.MessageHandler<MSG> registerMessage(int index, Class<MSG> messageType, BiConsumer<MSG, FriendlyByteBuf> encoder, Function<FriendlyByteBuf, MSG> decoder, BiConsumer<MSG, Supplier<NetworkEvent.Context>> messageConsumer) {
         return registerMessage(index, messageType, encoder, decoder, messageConsumer, Optional.empty());
     }
@@ -107,6 +125,21 @@ public class SimpleChannel
         target.send(toVanillaPacket(message, target.getDirection()));
     }
 
+    /**
+     * Send a message to every player in the collection. The message is encoded once, and the same packet is sent to
+     * every player, instead of encoding it again for each of them as sending to each {@link PacketDistributor#PLAYER} would.
+     *
+     * @param players The players to send the message to
+     * @param message The message to send
+     * @param <MSG> The type of the message
+     * @see PacketDistributor#PLAYERS
+     */
+    public <MSG> void sendToPlayers(Collection<? extends ServerPlayer> players, MSG message) {
+        if (players.isEmpty())
+            return;
+        send(PacketDistributor.PLAYERS.with(() -> players), message);
+    }
+
     public <MSG> Packet<?> toVanillaPacket(MSG message, NetworkDirection direction)
     {
         return direction.buildPacket(toBuffer(message), instance.getChannelName()).getThis();
@@ -10,6 +10,8 @@ import java.util.Map.Entry;
 import java.util.function.IntFunction;
 
 import com.mojang.datafixers.util.Pair;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.Util;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.DynamicOps;
@@ -31,6 +33,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 
 import io.netty.buffer.Unpooled;
 import net.minecraft.nbt.CompoundTag;
@@ -57,7 +60,9 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     private static Marker REGISTRYDUMP = MarkerManager.getMarker("REGISTRYDUMP");
     private static Logger LOGGER = LogManager.getLogger();
     private final RegistryManager stage;
-    private final BiMap<Integer, V> ids = HashBiMap.create();
+    // Indexed by id, grown as needed and trimmed once the registry is validated
+    private Object[] byId = new Object[0];
+    private final Reference2IntOpenHashMap<V> idsByValue = Util.make(new Reference2IntOpenHashMap<>(), map -> map.defaultReturnValue(-1));
     private final BiMap<ResourceLocation, V> names = HashBiMap.create();
     private final BiMap<ResourceKey<V>, V> keys = HashBiMap.create();
     private final Map<ResourceLocation, ResourceLocation> aliases = Maps.newHashMap();
@@ -85,6 +90,8 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
     private V defaultValue = null;
     boolean isFrozen = false;
+    // Cleared whenever the contents change
+    private Snapshot sharedSnapshot = null;
 
     private final ResourceLocation name;
     private final ResourceKey<Registry<V>> key;
@@ -150,7 +157,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
                 V ret = next;
                 do {
                     cur = availabilityMap.nextSetBit(cur + 1);
-                    next = ids.get(cur);
+                    next = getRawById(cur);
                 } while (next == null && cur != -1); // nextSetBit returns -1 when none is found
                 return ret;
             }
@@ -332,10 +339,10 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
     public int getID(V value)
     {
-        Integer ret = this.ids.inverse().get(value);
-        if (ret == null && this.defaultValue != null)
-            ret = this.ids.inverse().get(this.defaultValue);
-        return ret == null ? -1 : ret.intValue();
+        int ret = this.idsByValue.getInt(value);
+        if (ret == -1 && this.defaultValue != null)
+            ret = this.idsByValue.getInt(this.defaultValue);
+        return ret;
     }
 
     public int getID(ResourceLocation name)
@@ -344,8 +351,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     }
     private int getIDRaw(V value)
     {
-        Integer ret = this.ids.inverse().get(value);
-        return ret == null ? -1 : ret.intValue();
+        return this.idsByValue.getInt(value);
     }
     private int getIDRaw(ResourceLocation name)
     {
@@ -355,10 +361,35 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     @Override
     public V getValue(int id)
     {
-        V ret = this.ids.get(id);
+        V ret = getRawById(id);
         return ret == null ? this.defaultValue : ret;
     }
 
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private V getRawById(int id)
+    {
+        Object[] byId = this.byId;
+        return id >= 0 && id < byId.length ? (V) byId[id] : null;
+    }
+
+    private void putId(int id, V value)
+    {
+        if (id >= this.byId.length)
+            this.byId = Arrays.copyOf(this.byId, Math.max(id + 1, Math.min(this.byId.length * 2, this.max + 1)));
+        V old = getRawById(id);
+        if (old != null)
+            this.idsByValue.removeInt(old);
+        this.byId[id] = value;
+        this.idsByValue.put(value, id);
+    }
+
+    private void clearIds()
+    {
+        this.byId = new Object[0];
+        this.idsByValue.clear();
+    }
+
     @Nullable
     public ResourceKey<V> getKey(int id)
     {
@@ -422,10 +453,10 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
             idToUse = this.getID(oldEntry);
         }
 
-        Integer foundId = this.ids.inverse().get(value); //Is this ever possible to trigger with otherThing being different?
-        if (foundId != null)
+        int foundId = this.idsByValue.getInt(value); //Is this ever possible to trigger with otherThing being different?
+        if (foundId != -1)
         {
-            V otherThing = this.ids.get(foundId);
+            V otherThing = getRawById(foundId);
             throw new IllegalArgumentException(String.format(Locale.ENGLISH, "The object %s{%x} has been registered twice, using the names %s and %s. (Other object at this id is %s{%x})", value, System.identityHashCode(value), getKey(value), key, otherThing, System.identityHashCode(otherThing)));
         }
 
@@ -442,9 +473,10 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         ResourceKey<V> rkey = ResourceKey.create(this.key, key);
         this.names.put(key, value);
         this.keys.put(rkey, value);
-        this.ids.put(idToUse, value);
+        putId(idToUse, value);
         this.availabilityMap.set(idToUse);
         this.owners.put(new OverrideOwner<V>(owner == null ? key.getNamespace() : owner, rkey), value);
+        this.sharedSnapshot = null;
 
         if (hasWrapper)
         {
@@ -497,6 +529,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         }
 
         this.aliases.put(src, dst);
+        this.sharedSnapshot = null;
         LOGGER.trace(REGISTRIES,"Registry {} alias: {} -> {}", this.name, src, dst);
     }
 
@@ -579,6 +612,9 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         {
             //We don't care... Just a micro-optimization
         }
+        if (this.byId.length > this.availabilityMap.length())
+            this.byId = Arrays.copyOf(this.byId, this.availabilityMap.length());
+        this.idsByValue.trim();
 
         for (V obj : this)
         {
@@ -630,6 +666,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
             throw new IllegalArgumentException("WTF We are the same!?!?!");
 
         this.isFrozen = false;
+        this.sharedSnapshot = null;
 
         if (this.clear != null)
             this.clear.onClear(this, stage);
@@ -648,7 +685,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
             }
         }
 
-        this.ids.clear();
+        clearIds();
         this.names.clear();
         this.keys.clear();
         this.availabilityMap.clear(0, this.availabilityMap.length());
@@ -712,10 +749,11 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
         this.aliases.clear();
 
-        this.ids.clear();
+        clearIds();
         this.names.clear();
         this.keys.clear();
         this.availabilityMap.clear(0, this.availabilityMap.length());
+        this.sharedSnapshot = null;
     }
 
     @Override
@@ -734,10 +772,12 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
             if (rkey == null)
                 throw new IllegalStateException("Removed a entry that did not have an associated RegistryKey: " + key + " " + value.toString() + " This should never happen unless hackery!");
 
-            Integer id = this.ids.inverse().remove(value);
-            if (id == null)
+            int id = this.idsByValue.removeInt(value);
+            if (id == -1)
                 throw new IllegalStateException("Removed a entry that did not have an associated id: " + key + " " + value.toString() + " This should never happen unless hackery!");
+            this.byId[id] = null;
 
+            this.sharedSnapshot = null;
             LOGGER.trace(REGISTRIES,"Registry {} remove: {} {}", this.name, key, id);
         }
 
@@ -748,6 +788,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     {
         this.blocked.add(id);
         this.availabilityMap.set(id);
+        this.sharedSnapshot = null;
     }
 
     @Override
@@ -886,13 +927,30 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     public Snapshot makeSnapshot()
     {
         Snapshot ret = new Snapshot();
-        this.ids.forEach((id, value) -> ret.ids.put(getKey(value), id));
+        for (int id = 0; id < this.byId.length; id++)
+        {
+            V value = getRawById(id);
+            if (value != null)
+                ret.ids.put(getKey(value), id);
+        }
         ret.aliases.putAll(this.aliases);
         ret.blocked.addAll(this.blocked);
         ret.overrides.putAll(getOverrideOwners());
         return ret;
     }
 
+    /**
+     * Returns a snapshot of this registry which is reused until the registry next changes, so that its packet data and
+     * hash are only computed once no matter how many clients it is sent to. The returned snapshot must not be modified.
+     */
+    synchronized Snapshot getSharedSnapshot()
+    {
+        Snapshot ret = this.sharedSnapshot;
+        if (ret == null)
+            this.sharedSnapshot = ret = makeSnapshot();
+        return ret;
+    }
+
     Map<ResourceLocation, String> getOverrideOwners()
     {
         Map<ResourceLocation, String> ret = Maps.newHashMap();
@@ -917,7 +975,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
                 return ops.getNumberValue(input).flatMap(n ->
                 {
                     int id = n.intValue();
-                    if (ids.get(id) == null)
+                    if (getRawById(id) == null)
                     {
                         return DataResult.error(() -> "Unknown registry id in " + ForgeRegistry.this.key + ": " + n);
                     }
@@ -954,6 +1012,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         public final Set<Integer> blocked = Sets.newTreeSet();
         public final Map<ResourceLocation, String> overrides = Maps.newTreeMap(sorter);
         private FriendlyByteBuf binary = null;
+        private String hash = null;
 
         public CompoundTag write()
         {
@@ -1065,6 +1124,16 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
             return new FriendlyByteBuf(binary.slice());
         }
 
+        /**
+         * @return A hex encoded SHA-256 hash of the {@linkplain #getPacketData() packet data}
+         */
+        public synchronized String getHash()
+        {
+            if (hash == null)
+                hash = Hashing.sha256().hashBytes(getPacketData().nioBuffer()).toString();
+            return hash;
+        }
+
         public static Snapshot read(FriendlyByteBuf buff)
         {
             if (buff == null)
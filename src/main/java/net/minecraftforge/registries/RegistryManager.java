@@ -5,6 +5,8 @@
 
 package net.minecraftforge.registries;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -196,9 +198,29 @@ public class RegistryManager
 
     public static List<Pair<String, HandshakeMessages.S2CRegistry>> generateRegistryPackets(boolean isLocal)
     {
-        return !isLocal ? ACTIVE.takeSnapshot(false).entrySet().stream().
-                map(e->Pair.of("Registry " + e.getKey(), new HandshakeMessages.S2CRegistry(e.getKey(), e.getValue()))).
-                collect(Collectors.toList()) : Collections.emptyList();
+        return !isLocal ? generateRegistryPackets(Collections.emptyMap()) : Collections.emptyList();
+    }
+
+    /**
+     * Builds the registry packets for a remote client. The snapshots are shared between all clients until the registries
+     * change, so they are only encoded and hashed once.
+     *
+     * @param knownHashes The snapshot hashes the client already has for each registry, separated by commas. Registries
+     *                    which match one of them are sent as just their hash.
+     */
+    public static List<Pair<String, HandshakeMessages.S2CRegistry>> generateRegistryPackets(Map<ResourceLocation, String> knownHashes)
+    {
+        List<Pair<String, HandshakeMessages.S2CRegistry>> packets = new ArrayList<>();
+        for (ResourceLocation name : ACTIVE.synced)
+        {
+            Snapshot snapshot = ACTIVE.getRegistry(name).getSharedSnapshot();
+            String known = knownHashes.get(name);
+            if (known != null && Arrays.asList(known.split(",")).contains(snapshot.getHash()))
+                packets.add(Pair.of("Registry " + name + " (cached)", HandshakeMessages.S2CRegistry.cached(name, snapshot.getHash())));
+            else
+                packets.add(Pair.of("Registry " + name, new HandshakeMessages.S2CRegistry(name, snapshot)));
+        }
+        return packets;
     }
 
     public static List<ResourceLocation> getRegistryNamesForSyncToClient()
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.registries;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import com.google.common.hash.Hashing;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.Util;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import static net.minecraftforge.registries.ForgeRegistry.REGISTRIES;
+
+/**
+ * Keeps the registry snapshots a client has received from servers, so that a server can send just the
+ * {@linkplain ForgeRegistry.Snapshot#getHash() hash} of a snapshot the client already has.
+ * <p>
+ * The last snapshot received for each registry is stored on disk. The client's current registry contents can also be
+ * referred to by hash, which covers servers that did not change any ids.
+ */
+@ApiStatus.Internal
+public final class RegistrySnapshotCache
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private RegistrySnapshotCache()
+    {
+    }
+
+    /**
+     * @return The hashes of the snapshots available for each of the given registries, separated by commas
+     */
+    public static Map<ResourceLocation, String> getKnownHashes(Collection<ResourceLocation> registries)
+    {
+        Map<ResourceLocation, String> ret = new HashMap<>();
+        for (ResourceLocation name : registries)
+        {
+            StringJoiner hashes = new StringJoiner(",");
+            ForgeRegistry<?> registry = RegistryManager.ACTIVE.getRegistry(name);
+            if (registry != null)
+                hashes.add(registry.getSharedSnapshot().getHash());
+            String stored = readStoredHash(name);
+            if (stored != null && (registry == null || !stored.equals(registry.getSharedSnapshot().getHash())))
+                hashes.add(stored);
+            if (hashes.length() > 0)
+                ret.put(name, hashes.toString());
+        }
+        return ret;
+    }
+
+    /**
+     * @return true if the client's current contents of the registry match the snapshot with the given hash
+     */
+    public static boolean isCurrent(ResourceLocation name, String hash)
+    {
+        ForgeRegistry<?> registry = RegistryManager.ACTIVE.getRegistry(name);
+        return registry != null && registry.getSharedSnapshot().getHash().equals(hash);
+    }
+
+    /**
+     * Looks up a snapshot by its hash, either from the current registry contents or from disk.
+     *
+     * @return The snapshot, or null if it is not available
+     */
+    @Nullable
+    public static ForgeRegistry.Snapshot get(ResourceLocation name, String hash)
+    {
+        ForgeRegistry<?> registry = RegistryManager.ACTIVE.getRegistry(name);
+        if (registry != null && registry.getSharedSnapshot().getHash().equals(hash))
+            return registry.makeSnapshot();
+
+        Path file = getFile(name);
+        if (!Files.exists(file))
+            return null;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file)))
+        {
+            if (!hash.equals(in.readUTF()))
+                return null;
+            byte[] data = in.readAllBytes();
+            // Don't trust the stored hash, the file may have been changed or only partially written
+            if (!hash.equals(Hashing.sha256().hashBytes(data).toString()))
+            {
+                LOGGER.warn(REGISTRIES, "Ignoring corrupt cached snapshot for registry {}", name);
+                return null;
+            }
+            return ForgeRegistry.Snapshot.read(new FriendlyByteBuf(Unpooled.wrappedBuffer(data)));
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn(REGISTRIES, "Failed to read cached snapshot for registry {}", name, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a snapshot received from a server in the background, replacing the previous one for the registry.
+     */
+    public static void store(ResourceLocation name, ForgeRegistry.Snapshot snapshot)
+    {
+        String hash = snapshot.getHash();
+        if (Objects.equals(hash, readStoredHash(name)))
+            return;
+        FriendlyByteBuf data = snapshot.getPacketData();
+        byte[] bytes = new byte[data.readableBytes()];
+        data.readBytes(bytes);
+        Util.ioPool().execute(() ->
+        {
+            Path file = getFile(name);
+            try
+            {
+                Files.createDirectories(file.getParent());
+                try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file)))
+                {
+                    out.writeUTF(hash);
+                    out.write(bytes);
+                }
+            }
+            catch (IOException e)
+            {
+                LOGGER.warn(REGISTRIES, "Failed to cache snapshot for registry {}", name, e);
+            }
+        });
+    }
+
+    @Nullable
+    private static String readStoredHash(ResourceLocation name)
+    {
+        Path file = getFile(name);
+        if (!Files.exists(file))
+            return null;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file)))
+        {
+            return in.readUTF();
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    private static Path getFile(ResourceLocation name)
+    {
+        return FMLPaths.GAMEDIR.get().resolve(".cache").resolve("registries").resolve(name.getNamespace()).resolve(name.getPath() + ".bin");
+    }
+}
@@ -66,7 +66,7 @@ public class DelegatingPackResources extends AbstractPackResources
     @Override
     public void listResources(PackType type, String resourceNamespace, String paths, ResourceOutput resourceOutput)
     {
-        for (PackResources delegate : this.delegates)
+        for (PackResources delegate : getCandidatePacks(type, resourceNamespace))
         {
             delegate.listResources(type, resourceNamespace, paths, resourceOutput);
         }
@@ -103,7 +103,7 @@ public class DelegatingPackResources extends AbstractPackResources
         {
             IoSupplier<InputStream> ioSupplier = pack.getResource(type, location);
             if (ioSupplier != null)
-                return pack.getResource(type, location);
+                return ioSupplier;
         }
 
         return null;
@@ -116,9 +116,14 @@ public class DelegatingPackResources extends AbstractPackResources
     }
 
     private List<PackResources> getCandidatePacks(PackType type, ResourceLocation location)
+    {
+        return getCandidatePacks(type, location.getNamespace());
+    }
+
+    private List<PackResources> getCandidatePacks(PackType type, String namespace)
     {
         Map<String, List<PackResources>> map = type == PackType.CLIENT_RESOURCES ? namespacesAssets : namespacesData;
-        List<PackResources> packsWithNamespace = map.get(location.getNamespace());
+        List<PackResources> packsWithNamespace = map.get(namespace);
         return packsWithNamespace == null ? Collections.emptyList() : packsWithNamespace;
     }
 }
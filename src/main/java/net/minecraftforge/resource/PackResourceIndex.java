@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.resource;
+
+import com.google.common.hash.Hashing;
+import com.mojang.logging.LogUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import net.minecraft.server.packs.PackType;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+/**
+ * An in-memory list of every file in a pack, by {@link PackType} and namespace, so that listing and looking up
+ * resources doesn't have to touch the pack's file system.
+ * <p>
+ * Only usable for packs which don't change while the game is running. The index of a jar is stored on disk, keyed by the
+ * jar's path, size and modification time, so that it only has to be scanned again when it changes.
+ */
+final class PackResourceIndex
+{
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int VERSION = 1;
+
+    // Types without a directory in the pack are absent, namespaces map to their sorted file paths
+    private final Map<PackType, Map<String, NavigableSet<String>>> files;
+
+    private PackResourceIndex(Map<PackType, Map<String, NavigableSet<String>>> files)
+    {
+        this.files = files;
+    }
+
+    /**
+     * @return the namespaces of the given type, or null if the pack has no directory for it
+     */
+    @Nullable
+    Set<String> getNamespaces(PackType type)
+    {
+        Map<String, NavigableSet<String>> namespaces = files.get(type);
+        return namespaces == null ? null : Collections.unmodifiableSet(namespaces.keySet());
+    }
+
+    boolean contains(PackType type, String namespace, String path)
+    {
+        NavigableSet<String> paths = getPaths(type, namespace);
+        return paths != null && paths.contains(path);
+    }
+
+    /**
+     * @param path a slash separated directory path, or an empty string for the whole namespace
+     * @return the paths of every file within the directory, relative to the namespace
+     */
+    Set<String> list(PackType type, String namespace, String path)
+    {
+        NavigableSet<String> paths = getPaths(type, namespace);
+        if (paths == null)
+            return Collections.emptySet();
+        if (path.isEmpty())
+            return paths;
+        // '0' is the character after '/', so this covers everything under the directory
+        return paths.subSet(path + "/", true, path + "0", false);
+    }
+
+    @Nullable
+    private NavigableSet<String> getPaths(PackType type, String namespace)
+    {
+        Map<String, NavigableSet<String>> namespaces = files.get(type);
+        return namespaces == null ? null : namespaces.get(namespace);
+    }
+
+    /**
+     * Loads the index of a jar from the cache, or scans it and stores the result.
+     *
+     * @param jar the file the pack is read from, used as the cache key
+     * @param resolver resolves the directory of a pack type within the pack
+     */
+    static PackResourceIndex get(Path jar, Function<String, Path> resolver)
+    {
+        Path cacheFile = null;
+        try
+        {
+            String key = Hashing.sha256().hashString(jar.toAbsolutePath() + "|" + Files.size(jar) + "|" + Files.getLastModifiedTime(jar).toMillis(), StandardCharsets.UTF_8).toString();
+            cacheFile = FMLPaths.GAMEDIR.get().resolve(".cache").resolve("packindex").resolve(key + ".bin");
+            if (Files.exists(cacheFile))
+                return read(cacheFile);
+        }
+        catch (IOException e)
+        {
+            LOGGER.debug("Failed to read cached resource index for {}, scanning it again", jar, e);
+        }
+
+        PackResourceIndex index = scan(resolver);
+        if (cacheFile != null)
+        {
+            try
+            {
+                index.write(cacheFile);
+            }
+            catch (IOException e)
+            {
+                LOGGER.warn("Failed to cache resource index for {}", jar, e);
+            }
+        }
+        return index;
+    }
+
+    static PackResourceIndex scan(Function<String, Path> resolver)
+    {
+        Map<PackType, Map<String, NavigableSet<String>>> files = new EnumMap<>(PackType.class);
+        for (PackType type : PackType.values())
+        {
+            Path root = resolver.apply(type.getDirectory());
+            if (!Files.isDirectory(root))
+                continue;
+
+            Map<String, NavigableSet<String>> namespaces = new HashMap<>();
+            try (Stream<Path> walker = Files.walk(root))
+            {
+                walker.forEach(path ->
+                {
+                    Path relative = root.relativize(path);
+                    int count = relative.getNameCount();
+                    String namespace = count == 0 ? "" : stripSlash(relative.getName(0).toString());
+                    if (namespace.isEmpty()) // Skip the root entry, empty namespaces default to minecraft in ResourceLocations
+                        return;
+
+                    if (count == 1)
+                    {
+                        if (Files.isDirectory(path))
+                            namespaces.computeIfAbsent(namespace, k -> new TreeSet<>());
+                    }
+                    else if (Files.isRegularFile(path))
+                    {
+                        StringBuilder name = new StringBuilder();
+                        for (int i = 1; i < count; i++)
+                        {
+                            if (i > 1)
+                                name.append('/');
+                            name.append(stripSlash(relative.getName(i).toString()));
+                        }
+                        namespaces.computeIfAbsent(namespace, k -> new TreeSet<>()).add(name.toString());
+                    }
+                });
+            }
+            catch (IOException e)
+            {
+                LOGGER.warn("Failed to index {}", root, e);
+                continue;
+            }
+            files.put(type, namespaces);
+        }
+        return new PackResourceIndex(files);
+    }
+
+    private static String stripSlash(String name)
+    {
+        return name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+    }
+
+    private static PackResourceIndex read(Path file) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if (in.readInt() != VERSION)
+                throw new IOException("Unknown resource index version");
+
+            Map<PackType, Map<String, NavigableSet<String>>> files = new EnumMap<>(PackType.class);
+            int types = in.readInt();
+            for (int t = 0; t < types; t++)
+            {
+                PackType type = PackType.valueOf(in.readUTF());
+                int namespaceCount = in.readInt();
+                Map<String, NavigableSet<String>> namespaces = new HashMap<>();
+                for (int n = 0; n < namespaceCount; n++)
+                {
+                    NavigableSet<String> paths = new TreeSet<>();
+                    namespaces.put(in.readUTF(), paths);
+                    int pathCount = in.readInt();
+                    for (int p = 0; p < pathCount; p++)
+                        paths.add(in.readUTF());
+                }
+                files.put(type, namespaces);
+            }
+            return new PackResourceIndex(files);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    private void write(Path file) throws IOException
+    {
+        Files.createDirectories(file.getParent());
+        // Written to a temporary file first, so a crash never leaves a truncated index behind
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+        {
+            out.writeInt(VERSION);
+            out.writeInt(files.size());
+            for (Map.Entry<PackType, Map<String, NavigableSet<String>>> type : files.entrySet())
+            {
+                out.writeUTF(type.getKey().name());
+                out.writeInt(type.getValue().size());
+                for (Map.Entry<String, NavigableSet<String>> namespace : type.getValue().entrySet())
+                {
+                    out.writeUTF(namespace.getKey());
+                    out.writeInt(namespace.getValue().size());
+                    for (String path : namespace.getValue())
+                        out.writeUTF(path);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -37,6 +37,9 @@ public class PathPackResources extends AbstractPackResources
 {
     private static final Logger LOGGER = LogUtils.getLogger();
     private final Path source;
+    @Nullable
+    private PackResourceIndex index;
+    private volatile boolean indexLoaded;
 
     /**
      * Constructs a java.nio.Path-based resource pack.
@@ -77,6 +80,36 @@ public class PathPackResources extends AbstractPackResources
         return path;
     }
 
+    /**
+     * Implement to return the jar this pack is read from, if its contents never change while the game is running.
+     * Listing and looking up resources is then answered from an index of the jar, which is cached on disk.
+     *
+     * @return the jar file, or null to always read from the file system.
+     */
+    @Nullable
+    protected Path getIndexSource()
+    {
+        return null;
+    }
+
+    @Nullable
+    private PackResourceIndex getIndex()
+    {
+        if (this.indexLoaded)
+            return this.index;
+        synchronized (this)
+        {
+            if (!this.indexLoaded)
+            {
+                Path jar = getIndexSource();
+                if (jar != null)
+                    this.index = PackResourceIndex.get(jar, this::resolve);
+                this.indexLoaded = true;
+            }
+            return this.index;
+        }
+    }
+
     @Nullable
     @Override
     public IoSupplier<InputStream> getRootResource(String... paths)
@@ -92,14 +125,41 @@ public class PathPackResources extends AbstractPackResources
     public void listResources(PackType type, String namespace, String path, ResourceOutput resourceOutput)
     {
         FileUtil.decomposePath(path).get()
-                .ifLeft(parts -> net.minecraft.server.packs.PathPackResources.listPath(namespace, resolve(type.getDirectory(), namespace).toAbsolutePath(), parts, resourceOutput))
+                .ifLeft(parts -> listResources(type, namespace, parts, resourceOutput))
                 .ifRight(dataResult -> LOGGER.error("Invalid path {}: {}", path, dataResult.message()));
     }
 
+    private void listResources(PackType type, String namespace, List<String> parts, ResourceOutput resourceOutput)
+    {
+        PackResourceIndex index = getIndex();
+        if (index == null)
+        {
+            net.minecraft.server.packs.PathPackResources.listPath(namespace, resolve(type.getDirectory(), namespace).toAbsolutePath(), parts, resourceOutput);
+            return;
+        }
+
+        for (String file : index.list(type, namespace, String.join("/", parts)))
+        {
+            ResourceLocation location = ResourceLocation.tryBuild(namespace, file);
+            if (location == null)
+                LOGGER.warn("Invalid path in pack: {}:{}, ignoring", namespace, file);
+            else
+                resourceOutput.accept(location, IoSupplier.create(resolve(type.getDirectory(), namespace, file)));
+        }
+    }
+
     @Override
     public Set<String> getNamespaces(PackType type)
     {
-        return getNamespacesFromDisk(type);
+        PackResourceIndex index = getIndex();
+        if (index == null)
+            return getNamespacesFromDisk(type);
+
+        Set<String> namespaces = index.getNamespaces(type);
+        if (namespaces != null)
+            return namespaces;
+        // Same as when the directory is missing on disk, see getNamespacesFromDisk
+        return type == PackType.SERVER_DATA ? this.getNamespaces(PackType.CLIENT_RESOURCES) : Collections.emptySet();
     }
 
     @NotNull
@@ -135,7 +195,14 @@ public class PathPackResources extends AbstractPackResources
     @Override
     public IoSupplier<InputStream> getResource(PackType type, ResourceLocation location)
     {
-        return this.getRootResource(getPathFromLocation(location.getPath().startsWith("lang/") ? PackType.CLIENT_RESOURCES : type, location));
+        PackType actualType = location.getPath().startsWith("lang/") ? PackType.CLIENT_RESOURCES : type;
+        PackResourceIndex index = getIndex();
+        if (index == null)
+            return this.getRootResource(getPathFromLocation(actualType, location));
+
+        if (!index.contains(actualType, location.getNamespace(), location.getPath()))
+            return null;
+        return IoSupplier.create(resolve(getPathFromLocation(actualType, location)));
     }
 
     private static String[] getPathFromLocation(PackType type, ResourceLocation location)
@@ -5,6 +5,7 @@
 
 package net.minecraftforge.resource;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -63,6 +64,14 @@ public class ResourcePackLoader {
             {
                 return this.modFile.findResource(paths);
             }
+
+            @Override
+            protected Path getIndexSource()
+            {
+                // Mods loaded from directories, like in development, may have their resources changed while running
+                Path path = this.modFile.getFilePath();
+                return Files.isRegularFile(path) ? path : null;
+            }
         };
     }
 
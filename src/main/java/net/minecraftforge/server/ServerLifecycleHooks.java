@@ -42,7 +42,9 @@ import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.forgespi.locating.IModFile;
 import net.minecraftforge.registries.ForgeRegistries.Keys;
 import net.minecraftforge.resource.PathPackResources;
+import net.minecraftforge.server.command.ParallelChunkGenWorker;
 import net.minecraftforge.server.permission.PermissionAPI;
+import net.minecraftforge.server.timings.TickAttribution;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
@@ -95,6 +97,7 @@ public class ServerLifecycleHooks
         // on the dedi server we need to force the stuff to setup properly
         LogicalSidedProvider.setServer(()->server);
         ConfigTracker.INSTANCE.loadConfigs(ModConfig.Type.SERVER, getServerConfigPath(server));
+        TickAttribution.start();
         runModifiers(server);
         return !MinecraftForge.EVENT_BUS.post(new ServerAboutToStartEvent(server));
     }
@@ -114,6 +117,7 @@ public class ServerLifecycleHooks
     public static void handleServerStarted(final MinecraftServer server)
     {
         MinecraftForge.EVENT_BUS.post(new ServerStartedEvent(server));
+        ParallelChunkGenWorker.resumeAll(server);
         allowLogins.set(true);
     }
 
@@ -132,6 +136,7 @@ public class ServerLifecycleHooks
     {
         if (!server.isDedicatedServer()) GameData.revertToFrozen();
         MinecraftForge.EVENT_BUS.post(new ServerStoppedEvent(server));
+        TickAttribution.stop();
         currentServer = null;
         LogicalSidedProvider.setServer(null);
         CountDownLatch latch = exitLatch;
@@ -78,6 +78,12 @@ public class ChunkGenWorker implements IWorker
         return queue.size() > 0;
     }
 
+    @Override
+    public long getBacklog()
+    {
+        return queue.size();
+    }
+
     @Override
     public boolean doWork()
     {
@@ -15,15 +15,36 @@ import net.minecraft.commands.Commands;
 import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
 import net.minecraft.commands.arguments.DimensionArgument;
 import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraftforge.common.WorldWorkerManager;
 
 class GenerateCommand
 {
+    // Already about 156 million chunks, anything larger would take months to generate
+    private static final int MAX_RADIUS = 100_000;
+
     static ArgumentBuilder<CommandSourceStack, ?> register()
     {
         return Commands.literal("generate")
             .requires(cs->cs.hasPermission(4)) //permission
+            .then(Commands.literal("region")
+                .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                    .then(Commands.argument("radius", IntegerArgumentType.integer(0, MAX_RADIUS))
+                        .then(Commands.argument("dim", DimensionArgument.dimension())
+                            .executes(ctx -> executeRegion(ctx.getSource(), BlockPosArgument.getSpawnablePos(ctx, "pos"), getInt(ctx, "radius"), DimensionArgument.getDimension(ctx, "dim")))
+                        )
+                        .executes(ctx -> executeRegion(ctx.getSource(), BlockPosArgument.getSpawnablePos(ctx, "pos"), getInt(ctx, "radius"), ctx.getSource().getLevel()))
+                    )
+                )
+            )
+            .then(Commands.literal("stop")
+                .then(Commands.argument("dim", DimensionArgument.dimension())
+                    .executes(ctx -> executeStop(ctx.getSource(), DimensionArgument.getDimension(ctx, "dim")))
+                )
+                .executes(ctx -> executeStop(ctx.getSource(), ctx.getSource().getLevel()))
+            )
             .then(Commands.argument("pos", BlockPosArgument.blockPos())
                 .then(Commands.argument("count", IntegerArgumentType.integer(1))
                     .then(Commands.argument("dim", DimensionArgument.dimension())
@@ -52,4 +73,24 @@ class GenerateCommand
 
         return 0;
     }
+
+    private static int executeRegion(CommandSourceStack source, BlockPos pos, int radius, ServerLevel dim) throws CommandRuntimeException
+    {
+        ParallelChunkGenWorker worker = ParallelChunkGenWorker.start(source, dim, new ChunkPos(pos), (radius + 15) >> 4);
+        source.sendSuccess(worker::getStartMessage, true);
+
+        return 0;
+    }
+
+    private static int executeStop(CommandSourceStack source, ServerLevel dim)
+    {
+        if (!ParallelChunkGenWorker.stop(dim))
+        {
+            source.sendFailure(Component.translatable("commands.forge.gen.region.not_running", dim.dimension().location()));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.translatable("commands.forge.gen.region.stopped", dim.dimension().location()), true);
+
+        return 1;
+    }
 }
@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.command;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+
+import com.mojang.datafixers.util.Either;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraftforge.common.WorldWorkerManager;
+import net.minecraftforge.common.WorldWorkerManager.IWorker;
+
+/**
+ * Pregenerates every chunk within a square radius around a center chunk, without blocking the server thread.
+ * <p>
+ * Unlike {@link ChunkGenWorker}, which loads one chunk at a time synchronously, this keeps a bounded number of chunk
+ * futures in flight and lets the chunk system generate them on its worker threads. Chunks are requested one region file
+ * (32x32 chunks) at a time, with regions ordered in rings around the center, so every region is written in one go.
+ * <p>
+ * New chunks are not requested while the server thread has a backlog of chunk tasks, or while far more chunks are loaded
+ * than when the task started, which happens when unloading and saving cannot keep up. Progress is stored in the level's
+ * saved data, and an unfinished task is resumed automatically when the server starts again.
+ */
+public class ParallelChunkGenWorker implements IWorker
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final TicketType<ChunkPos> TICKET = TicketType.create("forge:pregen", Comparator.comparingLong(ChunkPos::toLong));
+    private static final Map<ResourceKey<Level>, ParallelChunkGenWorker> ACTIVE = new HashMap<>();
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_SIZE = 1 << REGION_SHIFT;
+    private static final int MAX_PENDING_TASKS = 256;
+    private static final int MAX_EXTRA_LOADED_CHUNKS = 4096;
+
+    private final CommandSourceStack listener;
+    private final ServerLevel dim;
+    private final Progress progress;
+    private final ChunkOrder order;
+    private final ArrayDeque<Request> inFlight = new ArrayDeque<>();
+    private final int maxInFlight;
+    private final int maxLoadedChunks;
+    private final long notificationFrequency;
+    private long lastNotification;
+    private long lastNotificationTime;
+    private boolean stopped;
+
+    private ParallelChunkGenWorker(CommandSourceStack listener, ServerLevel dim, Progress progress)
+    {
+        this.listener = listener;
+        this.dim = dim;
+        this.progress = progress;
+        this.order = new ChunkOrder(progress.centerX, progress.centerZ, progress.radius);
+        this.order.skip(progress.completed);
+        this.maxInFlight = Math.max(8, Math.min(256, Runtime.getRuntime().availableProcessors() * 8));
+        this.maxLoadedChunks = dim.getChunkSource().getLoadedChunksCount() + MAX_EXTRA_LOADED_CHUNKS;
+        this.notificationFrequency = Math.max(progress.getTotal() / 20, 100); //Every 5% or every 100, whichever is more.
+        this.lastNotification = progress.completed;
+        this.lastNotificationTime = System.currentTimeMillis(); //We also notify at least once every 60 seconds, to show we haven't froze.
+    }
+
+    /**
+     * Starts pregenerating a new square of chunks, replacing any task running or saved for the same level.
+     *
+     * @return The started worker
+     */
+    public static ParallelChunkGenWorker start(CommandSourceStack listener, ServerLevel dim, ChunkPos center, int radius)
+    {
+        stop(dim);
+        Progress progress = Progress.get(dim);
+        progress.set(center.x, center.z, radius);
+        ParallelChunkGenWorker worker = new ParallelChunkGenWorker(listener, dim, progress);
+        ACTIVE.put(dim.dimension(), worker);
+        WorldWorkerManager.addWorker(worker);
+        return worker;
+    }
+
+    /**
+     * Stops the task running in the given level and forgets its saved progress.
+     *
+     * @return {@code true} if a task was running
+     */
+    public static boolean stop(ServerLevel dim)
+    {
+        ParallelChunkGenWorker worker = ACTIVE.remove(dim.dimension());
+        if (worker != null)
+            worker.halt();
+        Progress.get(dim).clear();
+        return worker != null;
+    }
+
+    /**
+     * Resumes every task which was still running when the server was last stopped.
+     */
+    @ApiStatus.Internal
+    public static void resumeAll(MinecraftServer server)
+    {
+        for (ServerLevel dim : server.getAllLevels())
+        {
+            Progress progress = dim.getDataStorage().get(Progress::load, Progress.NAME);
+            if (progress == null || !progress.isActive() || ACTIVE.containsKey(dim.dimension()))
+                continue;
+            LOGGER.info("Resuming pregeneration of {} at {}/{} chunks", dim.dimension().location(), progress.completed, progress.getTotal());
+            ParallelChunkGenWorker worker = new ParallelChunkGenWorker(server.createCommandSourceStack(), dim, progress);
+            ACTIVE.put(dim.dimension(), worker);
+            WorldWorkerManager.addWorker(worker);
+        }
+    }
+
+    /**
+     * Forgets all running tasks without touching their saved progress, used when the server shuts down.
+     */
+    @ApiStatus.Internal
+    public static void clear()
+    {
+        ACTIVE.clear();
+    }
+
+    public MutableComponent getStartMessage()
+    {
+        return Component.translatable("commands.forge.gen.region.start", progress.getTotal(), progress.centerX, progress.centerZ, dim.dimension().location());
+    }
+
+    private void halt()
+    {
+        stopped = true;
+        ServerChunkCache chunkSource = dim.getChunkSource();
+        for (Request request : inFlight)
+        {
+            if (!request.released)
+                chunkSource.removeRegionTicket(TICKET, request.pos, 0, request.pos);
+        }
+        inFlight.clear();
+    }
+
+    @Override
+    public boolean hasWork()
+    {
+        return !stopped && (order.hasNext() || !inFlight.isEmpty());
+    }
+
+    @Override
+    public long getBacklog()
+    {
+        return progress.getTotal() - progress.completed;
+    }
+
+    @Override
+    public boolean doWork()
+    {
+        ServerChunkCache chunkSource = dim.getChunkSource();
+
+        // Requests complete out of order, but progress only advances past the oldest one so resuming never skips a chunk.
+        boolean finished = false;
+        for (Request request : inFlight)
+        {
+            if (request.future.isDone() && !request.released)
+            {
+                chunkSource.removeRegionTicket(TICKET, request.pos, 0, request.pos);
+                request.released = true;
+            }
+        }
+        while (!inFlight.isEmpty() && inFlight.peekFirst().released)
+        {
+            inFlight.pollFirst();
+            progress.advance();
+            finished = true;
+        }
+
+        // Only add more work when the server thread and the chunk saving are keeping up.
+        if (chunkSource.getPendingTasksCount() < MAX_PENDING_TASKS && chunkSource.getLoadedChunksCount() < maxLoadedChunks)
+        {
+            while (inFlight.size() < maxInFlight && order.hasNext())
+            {
+                ChunkPos pos = order.next();
+                chunkSource.addRegionTicket(TICKET, pos, 0, pos);
+                inFlight.addLast(new Request(pos, chunkSource.getChunkFuture(pos.x, pos.z, ChunkStatus.FULL, true)));
+            }
+        }
+
+        if (finished && (progress.completed - lastNotification >= notificationFrequency || lastNotificationTime < System.currentTimeMillis() - 60*1000))
+        {
+            long completed = progress.completed;
+            listener.sendSuccess(() -> Component.translatable("commands.forge.gen.progress", completed, progress.getTotal()), true);
+            lastNotification = completed;
+            lastNotificationTime = System.currentTimeMillis();
+        }
+
+        if (!order.hasNext() && inFlight.isEmpty() && !stopped)
+        {
+            listener.sendSuccess(() -> Component.translatable("commands.forge.gen.region.complete", progress.getTotal(), dim.dimension().location()), true);
+            ACTIVE.remove(dim.dimension(), this);
+            progress.clear();
+            stopped = true;
+        }
+        // Chunks generate off thread, so there is nothing left to do until the next tick.
+        return false;
+    }
+
+    private static final class Request
+    {
+        private final ChunkPos pos;
+        private final CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> future;
+        private boolean released;
+
+        private Request(ChunkPos pos, CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> future)
+        {
+            this.pos = pos;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Walks the chunks of a square one region at a time. Regions are ordered by ring around the center region, and
+     * within a ring row by row; chunks within a region are also walked row by row. The order is computed as it goes, so
+     * it takes the same memory for any radius.
+     */
+    static final class ChunkOrder
+    {
+        private final int minX, minZ, maxX, maxZ;
+        private final int minRegionX, minRegionZ, maxRegionX, maxRegionZ;
+        private final int centerRegionX, centerRegionZ;
+        private final int maxRing;
+        private int ring;
+        private int regionX, regionZ;
+        private int localIndex = -1;
+        private int regionChunksDone;
+        private boolean done;
+
+        ChunkOrder(int centerX, int centerZ, int radius)
+        {
+            this.minX = centerX - radius;
+            this.minZ = centerZ - radius;
+            this.maxX = centerX + radius;
+            this.maxZ = centerZ + radius;
+            this.minRegionX = minX >> REGION_SHIFT;
+            this.minRegionZ = minZ >> REGION_SHIFT;
+            this.maxRegionX = maxX >> REGION_SHIFT;
+            this.maxRegionZ = maxZ >> REGION_SHIFT;
+            this.centerRegionX = centerX >> REGION_SHIFT;
+            this.centerRegionZ = centerZ >> REGION_SHIFT;
+            this.maxRing = Math.max(Math.max(centerRegionX - minRegionX, maxRegionX - centerRegionX), Math.max(centerRegionZ - minRegionZ, maxRegionZ - centerRegionZ));
+            // The center region always holds the center chunk, so the walk starts there
+            this.regionX = centerRegionX;
+            this.regionZ = centerRegionZ;
+            advance();
+        }
+
+        boolean hasNext()
+        {
+            return !done;
+        }
+
+        ChunkPos next()
+        {
+            ChunkPos pos = new ChunkPos((regionX << REGION_SHIFT) + (localIndex & (REGION_SIZE - 1)), (regionZ << REGION_SHIFT) + (localIndex >> REGION_SHIFT));
+            regionChunksDone++;
+            advance();
+            return pos;
+        }
+
+        void skip(long count)
+        {
+            while (count > 0 && hasNext())
+            {
+                // Whole regions are skipped at once, so resuming a large task doesn't walk every finished chunk
+                int regionChunks = getRegionChunks();
+                if (regionChunksDone == 0 && count >= regionChunks)
+                {
+                    count -= regionChunks;
+                    localIndex = REGION_SIZE * REGION_SIZE;
+                    advance();
+                }
+                else
+                {
+                    next();
+                    count--;
+                }
+            }
+        }
+
+        private int getRegionChunks()
+        {
+            int width = Math.min(maxX, (regionX << REGION_SHIFT) + REGION_SIZE - 1) - Math.max(minX, regionX << REGION_SHIFT) + 1;
+            int depth = Math.min(maxZ, (regionZ << REGION_SHIFT) + REGION_SIZE - 1) - Math.max(minZ, regionZ << REGION_SHIFT) + 1;
+            return width * depth;
+        }
+
+        private void advance()
+        {
+            while (!done)
+            {
+                if (++localIndex >= REGION_SIZE * REGION_SIZE)
+                {
+                    localIndex = 0;
+                    if (!nextRegion())
+                    {
+                        done = true;
+                        return;
+                    }
+                }
+                int x = (regionX << REGION_SHIFT) + (localIndex & (REGION_SIZE - 1));
+                int z = (regionZ << REGION_SHIFT) + (localIndex >> REGION_SHIFT);
+                if (x >= minX && x <= maxX && z >= minZ && z <= maxZ)
+                    return;
+            }
+        }
+
+        /**
+         * Moves to the next region of the square, going outwards one ring at a time.
+         *
+         * @return {@code false} if every ring has been walked
+         */
+        private boolean nextRegion()
+        {
+            regionChunksDone = 0;
+            while (true)
+            {
+                // The top and bottom rows of a ring are walked fully, the rows in between only have their two ends
+                boolean edgeRow = Math.abs(regionZ - centerRegionZ) == ring;
+                if (edgeRow && regionX < centerRegionX + ring)
+                {
+                    regionX++;
+                }
+                else if (!edgeRow && regionX == centerRegionX - ring)
+                {
+                    regionX = centerRegionX + ring;
+                }
+                else if (regionZ < centerRegionZ + ring)
+                {
+                    regionZ++;
+                    regionX = centerRegionX - ring;
+                }
+                else
+                {
+                    if (++ring > maxRing)
+                        return false;
+                    regionZ = centerRegionZ - ring;
+                    regionX = centerRegionX - ring;
+                }
+
+                if (regionX >= minRegionX && regionX <= maxRegionX && regionZ >= minRegionZ && regionZ <= maxRegionZ)
+                    return true;
+            }
+        }
+    }
+
+    private static class Progress extends SavedData
+    {
+        private static final String NAME = "forge_pregen";
+
+        private int centerX;
+        private int centerZ;
+        private int radius = -1;
+        private long completed;
+
+        static Progress get(ServerLevel dim)
+        {
+            return dim.getDataStorage().computeIfAbsent(Progress::load, Progress::new, NAME);
+        }
+
+        static Progress load(CompoundTag tag)
+        {
+            Progress progress = new Progress();
+            progress.centerX = tag.getInt("CenterX");
+            progress.centerZ = tag.getInt("CenterZ");
+            progress.radius = tag.contains("Radius") ? tag.getInt("Radius") : -1;
+            progress.completed = tag.getLong("Completed");
+            return progress;
+        }
+
+        @Override
+        public CompoundTag save(CompoundTag tag)
+        {
+            tag.putInt("CenterX", centerX);
+            tag.putInt("CenterZ", centerZ);
+            tag.putInt("Radius", radius);
+            tag.putLong("Completed", completed);
+            return tag;
+        }
+
+        boolean isActive()
+        {
+            return radius >= 0;
+        }
+
+        long getTotal()
+        {
+            long side = 2L * radius + 1;
+            return side * side;
+        }
+
+        void set(int centerX, int centerZ, int radius)
+        {
+            this.centerX = centerX;
+            this.centerZ = centerZ;
+            this.radius = radius;
+            this.completed = 0;
+            setDirty();
+        }
+
+        void advance()
+        {
+            completed++;
+            setDirty();
+        }
+
+        void clear()
+        {
+            if (isActive())
+                set(0, 0, -1);
+        }
+    }
+}
@@ -7,6 +7,7 @@ package net.minecraftforge.server.command;
 
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -17,13 +18,19 @@ import java.util.function.Function;
 import net.minecraft.commands.CommandRuntimeException;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraftforge.server.timings.ForgeTimings;
+import net.minecraftforge.server.timings.TickProfiler;
 import net.minecraftforge.server.timings.TimeTracker;
+import net.minecraftforge.server.timings.TimingHistogram;
 
 class TrackCommand
 {
@@ -36,6 +43,7 @@ class TrackCommand
             .then(ResetTrackingCommand.register())
             .then(TrackResultsEntity.register())
             .then(TrackResultsBlockEntity.register())
+            .then(TrackResultsProfile.register())
             .then(StartTrackingCommand.register());
     }
 
@@ -66,6 +74,20 @@ class TrackCommand
                             return 0;
                         })
                     )
+                )
+                .then(Commands.literal("profile")
+                    .then(Commands.argument("duration", IntegerArgumentType.integer(1))
+                        .executes(ctx -> {
+                            int duration = IntegerArgumentType.getInteger(ctx, "duration");
+                            for (TickProfiler profiler : TickProfiler.ALL)
+                            {
+                                profiler.reset();
+                                profiler.enable(duration);
+                            }
+                            ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.tracking.profile.enabled", duration), true);
+                            return 0;
+                        })
+                    )
                 );
         }
     }
@@ -89,6 +111,13 @@ class TrackCommand
                         ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.tracking.entity.reset"), true);
                         return 0;
                     })
+                )
+                .then(Commands.literal("profile")
+                    .executes(ctx -> {
+                        TickProfiler.ALL.forEach(TickProfiler::reset);
+                        ctx.getSource().sendSuccess(() -> Component.translatable("commands.forge.tracking.profile.reset"), true);
+                        return 0;
+                    })
                 );
         }
     }
@@ -168,4 +197,65 @@ class TrackCommand
             );
         }
     }
+
+    private static class TrackResultsProfile
+    {
+        static ArgumentBuilder<CommandSourceStack, ?> register()
+        {
+            LiteralArgumentBuilder<CommandSourceStack> builder = Commands.literal("profile");
+            for (TickProfiler profiler : TickProfiler.ALL)
+            {
+                builder.then(Commands.literal(profiler.getName())
+                    .executes(ctx -> execute(ctx.getSource(), profiler, profiler.getTypeTimings(), TrackResultsProfile::describeType))
+                    .then(Commands.literal("chunks")
+                        .executes(ctx -> execute(ctx.getSource(), profiler, profiler.getChunkTimings(), pos -> pos.x + ", " + pos.z))
+                    )
+                );
+            }
+            return builder;
+        }
+
+        private static <K> int execute(CommandSourceStack source, TickProfiler profiler, List<TickProfiler.Entry<K>> entries, Function<K, String> describe)
+        {
+            if (entries.isEmpty())
+            {
+                source.sendSuccess(() -> Component.translatable("commands.forge.tracking.no_data"), true);
+                return 0;
+            }
+            source.sendSuccess(() -> format("commands.forge.tracking.profile.summary", profiler.getName(), profiler.getTotal()), true);
+            entries.stream()
+                .limit(10)
+                .forEach(entry -> source.sendSuccess(() -> format("commands.forge.tracking.profile.entry", describe.apply(entry.key()), entry.histogram()), true));
+            return 0;
+        }
+
+        private static Component format(String key, String name, TimingHistogram histogram)
+        {
+            return Component.translatable(key, name, histogram.getCount(), formatNanos(histogram.getTotal()),
+                formatNanos(histogram.getPercentile(0.5)), formatNanos(histogram.getPercentile(0.99)), formatNanos(histogram.getMax()));
+        }
+
+        private static String formatNanos(long nanos)
+        {
+            if (nanos < 1_000)
+                return nanos + "ns";
+            if (nanos < 1_000_000)
+                return TIME_FORMAT.format(nanos / 1_000.0) + "\u03bcs";
+            return TIME_FORMAT.format(nanos / 1_000_000.0) + "ms";
+        }
+
+        private static String describeType(Object type)
+        {
+            ResourceLocation key = null;
+            if (type instanceof EntityType<?> entityType)
+                key = ForgeRegistries.ENTITY_TYPES.getKey(entityType);
+            else if (type instanceof BlockEntityType<?> blockEntityType)
+                key = ForgeRegistries.BLOCK_ENTITY_TYPES.getKey(blockEntityType);
+            else if (type instanceof Block block)
+                key = ForgeRegistries.BLOCKS.getKey(block);
+            else if (type instanceof Class<?> cls)
+                return cls.getName();
+            return key != null ? key.toString() : String.valueOf(type);
+        }
+    }
 }
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.Util;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.common.ForgeConfig;
+import net.minecraftforge.common.WorldWorkerManager;
+import net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher;
+import net.minecraftforge.eventbus.api.IEventListener;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.forgespi.language.IModFileInfo;
+
+/**
+ * Continuously attributes server tick time to the mods that own the code being run.
+ * <p>
+ * Every {@code tickAttributionSampleInterval}th entity tick, block entity tick and event post on the server thread is timed.
+ * Entity and block entity ticks are charged to the namespace of their type, and every listener invoked while a sample
+ * is running is timed individually and charged to the mod owning the listener's class. Listener time is subtracted
+ * from the section it ran in, so no time is counted twice. Each sample is scaled by the sample interval, so the
+ * totals are an estimate of the real time spent.
+ * <p>
+ * The totals are written to a file in the Prometheus text exposition format every {@code tickMetricsExportInterval}
+ * seconds, so they can be picked up by a textfile collector.
+ */
+public class TickAttribution
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String UNKNOWN = "unknown";
+
+    public enum Source
+    {
+        ENTITY("entity"),
+        BLOCK_ENTITY("block_entity"),
+        EVENT("event");
+
+        private final String name;
+
+        Source(String name)
+        {
+            this.name = name;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+    }
+
+    private static final Map<Source, Object2LongOpenHashMap<String>> NANOS = new EnumMap<>(Source.class);
+    private static final long[] COUNTERS = new long[Source.values().length];
+    private static final long[] SAMPLES = new long[Source.values().length];
+    private static final Map<IEventListener, String> LISTENER_OWNERS = new WeakHashMap<>();
+    private static Map<String, String> packageOwners;
+
+    private static volatile Thread serverThread;
+    private static long sampleMask;
+    @Nullable
+    private static Source sampling;
+    private static long childNanos;
+    private static int exportTicks;
+
+    /**
+     * Times every listener individually while a sample is being taken, see {@link #isSampling()}.
+     */
+    public static final IEventBusInvokeDispatcher LISTENER_DISPATCHER = (listener, event) ->
+    {
+        long outerChildNanos = childNanos;
+        childNanos = 0;
+        long start = System.nanoTime();
+        try
+        {
+            listener.invoke(event);
+        }
+        finally
+        {
+            long elapsed = System.nanoTime() - start;
+            charge(Source.EVENT, getOwner(listener), elapsed - childNanos);
+            childNanos = outerChildNanos + elapsed;
+        }
+    };
+
+    static
+    {
+        for (Source source : Source.values())
+            NANOS.put(source, new Object2LongOpenHashMap<>());
+    }
+
+    /**
+     * Starts attributing time on the current thread, using the settings from the server config.
+     */
+    @ApiStatus.Internal
+    public static void start()
+    {
+        reset();
+        if (!ForgeConfig.SERVER.tickAttribution.get())
+            return;
+        sampleMask = Integer.highestOneBit(ForgeConfig.SERVER.tickAttributionSampleInterval.get()) - 1;
+        serverThread = Thread.currentThread();
+    }
+
+    /**
+     * Stops attributing time and clears all collected data.
+     */
+    @ApiStatus.Internal
+    public static void stop()
+    {
+        reset();
+    }
+
+    private static void reset()
+    {
+        serverThread = null;
+        sampling = null;
+        childNanos = 0;
+        exportTicks = 0;
+        NANOS.values().forEach(Object2LongOpenHashMap::clear);
+        Arrays.fill(COUNTERS, 0);
+        Arrays.fill(SAMPLES, 0);
+    }
+
+    /**
+     * Decides if the next section of the given source should be timed.
+     * If this returns true, {@link #end} must be called once the section is done.
+     *
+     * @return {@code true} if the section should be timed
+     */
+    public static boolean begin(Source source)
+    {
+        if (Thread.currentThread() != serverThread)
+            return false;
+        if (sampling != null)
+        {
+            if (sampling != source)
+                return false;
+            // The previous section of this source never ended, most likely because it threw
+            sampling = null;
+        }
+        if ((++COUNTERS[source.ordinal()] & sampleMask) != 0)
+            return false;
+        sampling = source;
+        childNanos = 0;
+        return true;
+    }
+
+    /**
+     * Ends a section that was started by a successful call to {@link #begin}.
+     *
+     * @param source The source passed to {@link #begin}
+     * @param owner  The mod the section should be charged to, or {@code null} if only nested listeners should be charged
+     * @param nanos  The total time taken by the section
+     */
+    public static void end(Source source, @Nullable String owner, long nanos)
+    {
+        sampling = null;
+        SAMPLES[source.ordinal()]++;
+        if (owner != null)
+            charge(source, owner, nanos - childNanos);
+        childNanos = 0;
+    }
+
+    /**
+     * @return {@code true} if a sample is currently being taken on this thread, in which case posted events should
+     * be dispatched through {@link #LISTENER_DISPATCHER}
+     */
+    public static boolean isSampling()
+    {
+        return sampling != null && Thread.currentThread() == serverThread;
+    }
+
+    /**
+     * @return {@code true} if a section of the given source is currently being timed on this thread
+     */
+    public static boolean isSampling(Source source)
+    {
+        return sampling == source && Thread.currentThread() == serverThread;
+    }
+
+    /**
+     * @return The namespace of the given registry name, or {@code "unknown"} if it is {@code null}
+     */
+    public static String getOwner(@Nullable ResourceLocation name)
+    {
+        return name == null ? UNKNOWN : name.getNamespace();
+    }
+
+    private static void charge(Source source, String owner, long nanos)
+    {
+        if (nanos > 0)
+            NANOS.get(source).addTo(owner, nanos * (sampleMask + 1));
+    }
+
+    private static String getOwner(IEventListener listener)
+    {
+        String owner = LISTENER_OWNERS.get(listener);
+        if (owner == null)
+        {
+            owner = findOwner(listener);
+            LISTENER_OWNERS.put(listener, owner);
+        }
+        return owner;
+    }
+
+    private static String findOwner(IEventListener listener)
+    {
+        String owner = getPackageOwner(listener.getClass().getName());
+        if (owner != null)
+            return owner;
+        // Listeners generated by the event bus describe the class they call in their string representation
+        for (String part : listener.toString().split("[\\s@$(]"))
+        {
+            owner = getPackageOwner(part);
+            if (owner != null)
+                return owner;
+        }
+        return UNKNOWN;
+    }
+
+    @Nullable
+    private static String getPackageOwner(String className)
+    {
+        int lastDot = className.lastIndexOf('.');
+        if (lastDot <= 0)
+            return null;
+        if (packageOwners == null)
+        {
+            Map<String, String> owners = new HashMap<>();
+            for (IModFileInfo file : ModList.get().getModFiles())
+            {
+                String modId = file.getMods().get(0).getModId();
+                for (String pkg : file.getFile().getSecureJar().getPackages())
+                    owners.putIfAbsent(pkg, modId);
+            }
+            packageOwners = owners;
+        }
+        return packageOwners.get(className.substring(0, lastDot));
+    }
+
+    /**
+     * Called at the end of every server tick to export the collected data when it is due.
+     */
+    @ApiStatus.Internal
+    public static void onServerTick(MinecraftServer server)
+    {
+        int interval = ForgeConfig.SERVER.tickMetricsExportInterval.get();
+        if (serverThread == null || interval <= 0 || ++exportTicks < interval * 20)
+            return;
+        exportTicks = 0;
+
+        String metrics = writeMetrics(server);
+        Path file = FMLPaths.GAMEDIR.get().resolve(ForgeConfig.SERVER.tickMetricsFile.get());
+        Util.ioPool().execute(() ->
+        {
+            try
+            {
+                Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.writeString(tmp, metrics, StandardCharsets.UTF_8);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException e)
+            {
+                LOGGER.warn("Failed to write tick metrics to {}", file, e);
+            }
+        });
+    }
+
+    /**
+     * Renders the collected data in the Prometheus text exposition format.
+     */
+    public static String writeMetrics(MinecraftServer server)
+    {
+        StringBuilder out = new StringBuilder();
+
+        out.append("# HELP forge_mod_tick_seconds_total Estimated server thread time attributed to each mod.\n");
+        out.append("# TYPE forge_mod_tick_seconds_total counter\n");
+        for (Source source : Source.values())
+        {
+            Map<String, Long> sorted = new TreeMap<>();
+            for (Object2LongMap.Entry<String> entry : NANOS.get(source).object2LongEntrySet())
+                sorted.put(entry.getKey(), entry.getLongValue());
+            sorted.forEach((mod, nanos) -> out.append("forge_mod_tick_seconds_total{mod=\"").append(escape(mod))
+                .append("\",source=\"").append(source.getName()).append("\"} ").append(nanos / 1.0E9D).append('\n'));
+        }
+
+        out.append("# HELP forge_tick_attribution_samples_total Number of sections timed for attribution.\n");
+        out.append("# TYPE forge_tick_attribution_samples_total counter\n");
+        for (Source source : Source.values())
+            out.append("forge_tick_attribution_samples_total{source=\"").append(source.getName()).append("\"} ").append(SAMPLES[source.ordinal()]).append('\n');
+
+        out.append("# HELP forge_server_tick_seconds Mean duration of the last 100 server ticks.\n");
+        out.append("# TYPE forge_server_tick_seconds gauge\n");
+        out.append("forge_server_tick_seconds ").append(mean(server.tickTimes) / 1.0E9D).append('\n');
+
+        out.append("# HELP forge_level_tick_seconds Mean duration of the last 100 ticks of each level.\n");
+        out.append("# TYPE forge_level_tick_seconds gauge\n");
+        for (ServerLevel level : server.getAllLevels())
+        {
+            long[] times = server.getTickTime(level.dimension());
+            if (times != null)
+                out.append("forge_level_tick_seconds{dimension=\"").append(escape(level.dimension().location().toString())).append("\"} ").append(mean(times) / 1.0E9D).append('\n');
+        }
+
+        Map<String, long[]> workers = new TreeMap<>();
+        for (WorldWorkerManager.WorkerStats stats : WorldWorkerManager.getStats())
+        {
+            long[] totals = workers.computeIfAbsent(stats.worker().getClass().getName(), k -> new long[2]);
+            totals[0] += stats.totalNanos();
+            totals[1] += Math.max(0, stats.backlog());
+        }
+
+        out.append("# HELP forge_world_worker_seconds_total Time spent by the currently running world workers, by class.\n");
+        out.append("# TYPE forge_world_worker_seconds_total counter\n");
+        workers.forEach((name, totals) -> out.append("forge_world_worker_seconds_total{worker=\"").append(escape(name)).append("\"} ").append(totals[0] / 1.0E9D).append('\n'));
+
+        out.append("# HELP forge_world_worker_backlog Work left for the currently running world workers, by class.\n");
+        out.append("# TYPE forge_world_worker_backlog gauge\n");
+        workers.forEach((name, totals) -> out.append("forge_world_worker_backlog{worker=\"").append(escape(name)).append("\"} ").append(totals[1]).append('\n'));
+
+        return out.toString();
+    }
+
+    private static double mean(long[] values)
+    {
+        long sum = 0L;
+        for (long v : values)
+            sum += v;
+        return values.length == 0 ? 0 : (double) sum / values.length;
+    }
+
+    private static String escape(String value)
+    {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
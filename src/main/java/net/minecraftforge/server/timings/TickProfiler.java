@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * An aggregating tick profiler which records durations into {@link TimingHistogram}s grouped by a type key
+ * (such as an entity type, block entity type, block or event class) and by the chunk the work happened in.
+ * <p>
+ * Unlike the per object tracking of {@link TimeTracker}, the amount of memory used only depends on the number of
+ * distinct types and chunks, and recording a sample does not allocate once a type or chunk has been seen.
+ * <p>
+ * A profiler only records samples on the thread that enabled it (normally the server thread), all other calls to
+ * {@link #record} are ignored.
+ */
+public class TickProfiler
+{
+    /**
+     * A profiler for block entity ticks
+     */
+    public static final TickProfiler BLOCK_ENTITY_TICK = new TickProfiler("te");
+    /**
+     * A profiler for entity ticks
+     */
+    public static final TickProfiler ENTITY_TICK = new TickProfiler("entity");
+    /**
+     * A profiler for scheduled block ticks
+     */
+    public static final TickProfiler SCHEDULED_TICK = new TickProfiler("scheduled");
+    /**
+     * A profiler for event dispatch on {@link net.minecraftforge.common.MinecraftForge#EVENT_BUS}
+     */
+    public static final TickProfiler EVENT_DISPATCH = new TickProfiler("event");
+
+    public static final List<TickProfiler> ALL = ImmutableList.of(BLOCK_ENTITY_TICK, ENTITY_TICK, SCHEDULED_TICK, EVENT_DISPATCH);
+
+    private final String name;
+    private final Map<Object, TimingHistogram> byType = new HashMap<>();
+    private final Long2ObjectMap<TimingHistogram> byChunk = new Long2ObjectOpenHashMap<>();
+    private final TimingHistogram total = new TimingHistogram();
+    private volatile boolean enabled;
+    private Thread owner;
+    private long endTime;
+
+    private TickProfiler(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * @return The name used to refer to this profiler in commands
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Starts recording data on the current thread for the given duration in seconds
+     *
+     * @param duration The duration to record for
+     */
+    public void enable(int duration)
+    {
+        this.owner = Thread.currentThread();
+        this.endTime = System.nanoTime() + TimeUnit.NANOSECONDS.convert(duration, TimeUnit.SECONDS);
+        this.enabled = true;
+    }
+
+    /**
+     * Stops recording and clears all recorded data
+     */
+    public void reset()
+    {
+        enabled = false;
+        owner = null;
+        byType.clear();
+        byChunk.clear();
+        total.reset();
+    }
+
+    /**
+     * @return If this profiler is currently recording
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Returns a start timestamp to later pass to {@link #end}, or 0 if this profiler is not recording.
+     * This is the cheapest way to time a section of code from a patch.
+     */
+    public long start()
+    {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Finishes timing a section started with {@link #start()}
+     *
+     * @param start The value returned by {@link #start()}
+     * @param type  The type key to group the sample under
+     * @param pos   The position the work happened at
+     */
+    public void end(long start, Object type, BlockPos pos)
+    {
+        if (start != 0L)
+            record(type, ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), System.nanoTime() - start);
+    }
+
+    /**
+     * Records a single sample.
+     *
+     * @param type     The type key to group the sample under
+     * @param chunkPos The packed position of the chunk the work happened in, or {@link ChunkPos#INVALID_CHUNK_POS} if not applicable
+     * @param nanos    The duration in nanoseconds
+     */
+    public void record(Object type, long chunkPos, long nanos)
+    {
+        if (!enabled || Thread.currentThread() != owner)
+            return;
+        if (System.nanoTime() > endTime)
+        {
+            enabled = false;
+            return;
+        }
+
+        total.record(nanos);
+        TimingHistogram typeHistogram = byType.get(type);
+        if (typeHistogram == null)
+            byType.put(type, typeHistogram = new TimingHistogram());
+        typeHistogram.record(nanos);
+
+        if (chunkPos != ChunkPos.INVALID_CHUNK_POS)
+        {
+            TimingHistogram chunkHistogram = byChunk.get(chunkPos);
+            if (chunkHistogram == null)
+                byChunk.put(chunkPos, chunkHistogram = new TimingHistogram());
+            chunkHistogram.record(nanos);
+        }
+    }
+
+    /**
+     * @return The histogram of every sample recorded by this profiler
+     */
+    public TimingHistogram getTotal()
+    {
+        return total;
+    }
+
+    /**
+     * @return A snapshot of the recorded data grouped by type, sorted by descending total time
+     */
+    public List<Entry<Object>> getTypeTimings()
+    {
+        List<Entry<Object>> list = new ArrayList<>(byType.size());
+        byType.forEach((type, histogram) -> list.add(new Entry<>(type, histogram)));
+        list.sort(Entry.BY_TOTAL);
+        return list;
+    }
+
+    /**
+     * @return A snapshot of the recorded data grouped by chunk, sorted by descending total time
+     */
+    public List<Entry<ChunkPos>> getChunkTimings()
+    {
+        List<Entry<ChunkPos>> list = new ArrayList<>(byChunk.size());
+        for (Long2ObjectMap.Entry<TimingHistogram> entry : byChunk.long2ObjectEntrySet())
+            list.add(new Entry<>(new ChunkPos(entry.getLongKey()), entry.getValue()));
+        list.sort(Entry.BY_TOTAL);
+        return list;
+    }
+
+    public record Entry<K>(K key, TimingHistogram histogram)
+    {
+        private static final Comparator<Entry<?>> BY_TOTAL = Comparator.<Entry<?>>comparingLong(e -> e.histogram().getTotal()).reversed();
+    }
+}
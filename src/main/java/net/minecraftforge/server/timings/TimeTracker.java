@@ -9,15 +9,23 @@ import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.MapMaker;
 
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A class to assist in the collection of data to measure the update times of ticking objects {currently Tile Entities and Entities}
+ * <p>
+ * Every measurement is also forwarded to the tracker's {@link TickProfiler}, which aggregates the data by type and chunk
+ * when it is enabled.
  *
  * @param <T>
  */
@@ -27,19 +35,67 @@ public class TimeTracker<T>
     /**
      * A tracker for timing tile entity update
      */
-    public static final TimeTracker<BlockEntity> BLOCK_ENTITY_UPDATE = new TimeTracker<>();
+    public static final TimeTracker<BlockEntity> BLOCK_ENTITY_UPDATE = new TimeTracker<>(TickProfiler.BLOCK_ENTITY_TICK, BlockEntity::getType, be -> ChunkPos.asLong(be.getBlockPos()),
+            TickAttribution.Source.BLOCK_ENTITY, be -> TickAttribution.getOwner(ForgeRegistries.BLOCK_ENTITY_TYPES.getKey(be.getType())));
     /**
      * A tracker for timing entity updates
      */
-    public static final TimeTracker<Entity> ENTITY_UPDATE = new TimeTracker<>();
-
+    public static final TimeTracker<Entity> ENTITY_UPDATE = new TimeTracker<>(TickProfiler.ENTITY_TICK, Entity::getType, entity -> entity.chunkPosition().toLong(),
+            TickAttribution.Source.ENTITY, entity -> TickAttribution.getOwner(ForgeRegistries.ENTITY_TYPES.getKey(entity.getType())));
+
+    @Nullable
+    private final TickProfiler profiler;
+    @Nullable
+    private final Function<T, ?> profilerType;
+    @Nullable
+    private final ToLongFunction<T> profilerChunk;
+    @Nullable
+    private final TickAttribution.Source attributionSource;
+    @Nullable
+    private final Function<T, String> attributionOwner;
     private boolean enabled;
     private int trackingDuration;
     private Map<T, int[]> timings = new MapMaker().weakKeys().makeMap();
+    // Only set while measuring, and weak so an object whose tick threw before trackEnd isn't kept alive
+    @Nullable
     private WeakReference<T> currentlyTracking;
     private long trackTime;
     private long timing;
 
+    /**
+     * @deprecated Use one of the other constructors, a tracker made with this one only records the timings of
+     *             {@link #enable(int)}, without a profiler or attribution
+     */
+    @Deprecated(since = "1.20.1")
+    public TimeTracker()
+    {
+        this(null, null, null, null, null);
+    }
+
+    public TimeTracker(TickProfiler profiler, Function<T, ?> profilerType, ToLongFunction<T> profilerChunk)
+    {
+        this(profiler, profilerType, profilerChunk, null, null);
+    }
+
+    public TimeTracker(@Nullable TickProfiler profiler, @Nullable Function<T, ?> profilerType, @Nullable ToLongFunction<T> profilerChunk,
+            @Nullable TickAttribution.Source attributionSource, @Nullable Function<T, String> attributionOwner)
+    {
+        this.profiler = profiler;
+        this.profilerType = profilerType;
+        this.profilerChunk = profilerChunk;
+        this.attributionSource = attributionSource;
+        this.attributionOwner = attributionOwner;
+    }
+
+    /**
+     * @return The profiler that aggregates the data measured by this tracker, or null if it has none
+     */
+    @Nullable
+    public TickProfiler getProfiler()
+    {
+        return profiler;
+    }
+
     /**
      * Returns the timings data recorded by the tracker
      *
@@ -73,9 +129,10 @@ public class TimeTracker<T>
      */
     public void trackEnd(T tracking)
     {
-        if (!enabled)
+        boolean attributing = attributionSource != null && TickAttribution.isSampling(attributionSource);
+        if (!enabled && !isProfiling() && !attributing)
             return;
-        this.trackEnd(tracking, System.nanoTime());
+        this.trackEnd(tracking, System.nanoTime(), attributing);
     }
 
     /**
@@ -96,33 +153,53 @@ public class TimeTracker<T>
      */
     public void trackStart(T toTrack)
     {
-        if (!enabled)
+        boolean attributing = attributionSource != null && TickAttribution.begin(attributionSource);
+        if (!enabled && !isProfiling() && !attributing)
             return;
         this.trackStart(toTrack, System.nanoTime());
     }
 
-    private void trackEnd(T object, long nanoTime)
+    private boolean isProfiling()
+    {
+        return profiler != null && profiler.isEnabled();
+    }
+
+    private void trackEnd(T object, long nanoTime, boolean attributing)
     {
         if (currentlyTracking == null || currentlyTracking.get() != object)
         {
+            if (attributing)
+                TickAttribution.end(attributionSource, null, 0);
             currentlyTracking = null;
             return;
         }
-        int[] timings = this.timings.computeIfAbsent(object, k -> new int[101]);
-        int idx = timings[100] = (timings[100] + 1) % 100;
-        timings[idx] = (int) (nanoTime - timing);
+        currentlyTracking = null;
+        long elapsed = nanoTime - timing;
+        if (attributing)
+            TickAttribution.end(attributionSource, attributionOwner == null ? null : attributionOwner.apply(object), elapsed);
+        if (enabled)
+        {
+            int[] timings = this.timings.computeIfAbsent(object, k -> new int[101]);
+            int idx = timings[100] = (timings[100] + 1) % 100;
+            timings[idx] = (int) elapsed;
+        }
+        if (isProfiling())
+            profiler.record(profilerType.apply(object), profilerChunk.applyAsLong(object), elapsed);
     }
 
     private void trackStart(T toTrack, long nanoTime)
     {
-        if (trackTime == 0)
-        {
-            trackTime = nanoTime;
-        }
-        else if (trackTime + TimeUnit.NANOSECONDS.convert(trackingDuration, TimeUnit.SECONDS) < nanoTime)
+        if (enabled)
         {
-            enabled = false;
-            trackTime = 0;
+            if (trackTime == 0)
+            {
+                trackTime = nanoTime;
+            }
+            else if (trackTime + TimeUnit.NANOSECONDS.convert(trackingDuration, TimeUnit.SECONDS) < nanoTime)
+            {
+                enabled = false;
+                trackTime = 0;
+            }
         }
 
         currentlyTracking = new WeakReference<>(toTrack);
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.function.Consumer;
+
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.GenericEvent;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher;
+
+/**
+ * An {@link IEventBus} which forwards everything to another bus, and records the time taken by every
+ * {@link #post} into a {@link TickProfiler} while it is enabled.
+ * Nested posts are included in the time of the event that caused them.
+ * <p>
+ * Posts are also sampled for {@link TickAttribution}, which times every listener individually.
+ */
+public class TimedEventBus implements IEventBus
+{
+    private final IEventBus delegate;
+    private final TickProfiler profiler;
+
+    public TimedEventBus(IEventBus delegate, TickProfiler profiler)
+    {
+        this.delegate = delegate;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public boolean post(Event event)
+    {
+        if (TickAttribution.isSampling())
+            return post(event, TickAttribution.LISTENER_DISPATCHER);
+        boolean attributing = TickAttribution.begin(TickAttribution.Source.EVENT);
+        if (!attributing && !profiler.isEnabled())
+            return delegate.post(event);
+        long start = System.nanoTime();
+        try
+        {
+            return attributing ? delegate.post(event, TickAttribution.LISTENER_DISPATCHER) : delegate.post(event);
+        }
+        finally
+        {
+            long elapsed = System.nanoTime() - start;
+            if (attributing)
+                TickAttribution.end(TickAttribution.Source.EVENT, null, elapsed);
+            profiler.record(event.getClass(), ChunkPos.INVALID_CHUNK_POS, elapsed);
+        }
+    }
+
+    @Override
+    public boolean post(Event event, IEventBusInvokeDispatcher wrapper)
+    {
+        if (!profiler.isEnabled())
+            return delegate.post(event, wrapper);
+        long start = System.nanoTime();
+        try
+        {
+            return delegate.post(event, wrapper);
+        }
+        finally
+        {
+            profiler.record(event.getClass(), ChunkPos.INVALID_CHUNK_POS, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void register(Object target)
+    {
+        delegate.register(target);
+    }
+
+    @Override
+    public <T extends Event> void addListener(Consumer<T> consumer)
+    {
+        delegate.addListener(consumer);
+    }
+
+    @Override
+    public <T extends Event> void addListener(EventPriority priority, Consumer<T> consumer)
+    {
+        delegate.addListener(priority, consumer);
+    }
+
+    @Override
+    public <T extends Event> void addListener(EventPriority priority, boolean receiveCancelled, Consumer<T> consumer)
+    {
+        delegate.addListener(priority, receiveCancelled, consumer);
+    }
+
+    @Override
+    public <T extends Event> void addListener(EventPriority priority, boolean receiveCancelled, Class<T> eventType, Consumer<T> consumer)
+    {
+        delegate.addListener(priority, receiveCancelled, eventType, consumer);
+    }
+
+    @Override
+    public <T extends GenericEvent<? extends F>, F> void addGenericListener(Class<F> genericClassFilter, Consumer<T> consumer)
+    {
+        delegate.addGenericListener(genericClassFilter, consumer);
+    }
+
+    @Override
+    public <T extends GenericEvent<? extends F>, F> void addGenericListener(Class<F> genericClassFilter, EventPriority priority, Consumer<T> consumer)
+    {
+        delegate.addGenericListener(genericClassFilter, priority, consumer);
+    }
+
+    @Override
+    public <T extends GenericEvent<? extends F>, F> void addGenericListener(Class<F> genericClassFilter, EventPriority priority, boolean receiveCancelled, Consumer<T> consumer)
+    {
+        delegate.addGenericListener(genericClassFilter, priority, receiveCancelled, consumer);
+    }
+
+    @Override
+    public <T extends GenericEvent<? extends F>, F> void addGenericListener(Class<F> genericClassFilter, EventPriority priority, boolean receiveCancelled, Class<T> eventType, Consumer<T> consumer)
+    {
+        delegate.addGenericListener(genericClassFilter, priority, receiveCancelled, eventType, consumer);
+    }
+
+    @Override
+    public void unregister(Object object)
+    {
+        delegate.unregister(object);
+    }
+
+    @Override
+    public void shutdown()
+    {
+        delegate.shutdown();
+    }
+
+    @Override
+    public void start()
+    {
+        delegate.start();
+    }
+}
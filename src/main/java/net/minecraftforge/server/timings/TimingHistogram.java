@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.Arrays;
+
+/**
+ * A fixed size log-linear histogram of nanosecond durations.
+ * <p>
+ * Every power of two is split into {@value #SUB_BUCKETS} linear sub buckets, which bounds the relative error of
+ * any reported percentile to 25% while keeping the whole histogram in a single small array.
+ * Recording a sample never allocates.
+ * <p>
+ * This class is not thread safe, it is expected to only be written to from a single thread.
+ */
+public class TimingHistogram
+{
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Samples at or above 2^MAX_EXPONENT nanoseconds (roughly 18 minutes) are clamped into a single overflow bucket.
+     */
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + 1;
+
+    private final int[] counts = new int[BUCKET_COUNT];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+        counts[bucketIndex(nanos)]++;
+        count++;
+        total += nanos;
+        if (nanos > max)
+            max = nanos;
+    }
+
+    /**
+     * Clears all recorded samples.
+     */
+    public void reset()
+    {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    /**
+     * @return The number of recorded samples
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return The sum of all recorded samples in nanoseconds
+     */
+    public long getTotal()
+    {
+        return total;
+    }
+
+    /**
+     * @return The largest recorded sample in nanoseconds
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * @return The mean of all recorded samples in nanoseconds
+     */
+    public double getMean()
+    {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Estimates the given percentile of the recorded samples.
+     * The returned value is the upper bound of the bucket containing the percentile, capped at {@link #getMax()}.
+     *
+     * @param percentile The percentile to estimate, between 0 and 1
+     * @return The estimated value in nanoseconds, or 0 if no samples have been recorded
+     */
+    public long getPercentile(double percentile)
+    {
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * Adds all samples of another histogram to this one.
+     *
+     * @param other The histogram to merge into this one
+     */
+    public void merge(TimingHistogram other)
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            counts[i] += other.counts[i];
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    static int bucketIndex(long value)
+    {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT)
+            return BUCKET_COUNT - 1;
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int index)
+    {
+        if (index < SUB_BUCKETS)
+            return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        return ((long) SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long upperBound(int index)
+    {
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : lowerBound(index + 1) - 1;
+    }
+}
@@ -7,6 +7,7 @@ package net.minecraftforge.test;
 
 import com.mojang.datafixers.util.Unit;
 import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.common.util.NonNullConsumer;
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.junit.jupiter.api.Test;
 
@@ -15,6 +16,8 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LazyOptionalTest
 {
@@ -64,4 +67,28 @@ public class LazyOptionalTest
         badLazy.ifPresent(u -> {});
         assertEquals(1, supplierCalls.intValue());
     }
+
+    @Test
+    public void testListenersNotifiedOnce() {
+        LazyOptional<Unit> lazy = LazyOptional.of(() -> Unit.INSTANCE);
+        MutableInt first = new MutableInt();
+        MutableInt second = new MutableInt();
+        NonNullConsumer<LazyOptional<Unit>> firstListener = l -> first.increment();
+        lazy.addListener(firstListener);
+        lazy.addListener(firstListener);
+        lazy.addListener(l -> second.increment());
+        lazy.invalidate();
+        lazy.invalidate();
+        assertEquals(1, first.intValue());
+        assertEquals(1, second.intValue());
+        assertFalse(lazy.isPresent());
+    }
+
+    @Test
+    public void testOfValue() {
+        LazyOptional<Unit> lazy = LazyOptional.ofValue(Unit.INSTANCE);
+        assertTrue(lazy.isPresent());
+        assertEquals(Unit.INSTANCE, lazy.orElseThrow(IllegalStateException::new));
+        assertFalse(LazyOptional.ofValue(null).isPresent());
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.minecraftforge.test;
+
+import net.minecraftforge.server.timings.TimingHistogram;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingHistogramTest {
+    @Test
+    void emptyHistogramReportsZero() {
+        var histogram = new TimingHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0.99));
+        assertEquals(0, histogram.getMean());
+    }
+
+    @Test
+    void percentilesStayWithinBucketError() {
+        var histogram = new TimingHistogram();
+        for (long i = 1; i <= 10_000; i++)
+            histogram.record(i * 1_000);
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertWithin(5_000_000, histogram.getPercentile(0.5));
+        assertWithin(9_900_000, histogram.getPercentile(0.99));
+        assertEquals(10_000_000, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        var histogram = new TimingHistogram();
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+        assertEquals(1, histogram.getPercentile(0.5));
+        assertEquals(3, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void hugeValuesAreClamped() {
+        var histogram = new TimingHistogram();
+        histogram.record(Long.MAX_VALUE / 2);
+        assertEquals(Long.MAX_VALUE / 2, histogram.getPercentile(0.5));
+    }
+
+    @Test
+    void mergeCombinesSamples() {
+        var a = new TimingHistogram();
+        var b = new TimingHistogram();
+        a.record(100);
+        b.record(200_000);
+        a.merge(b);
+        assertEquals(2, a.getCount());
+        assertEquals(200_100, a.getTotal());
+        assertEquals(200_000, a.getMax());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.25, () -> "Expected " + actual + " to be within 25% above " + expected);
+    }
+}